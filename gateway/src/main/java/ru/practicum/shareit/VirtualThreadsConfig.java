@@ -0,0 +1,31 @@
+package ru.practicum.shareit;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка HTTP-запросов шлюза в виртуальных потоках вместо пула потоков Tomcat.
+ * Включается свойством shareit.virtual-threads.enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler() {
+        Executor executor;
+        try {
+            executor = (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Для shareit.virtual-threads.enabled=true нужна JDK 21+, текущая версия: "
+                    + Runtime.version(), e);
+        }
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
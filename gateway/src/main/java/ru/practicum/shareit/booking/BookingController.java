@@ -13,7 +13,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.UnsupportedStatus;
 
@@ -21,6 +23,8 @@ import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.client.Variables.ID_SHARER;
 
@@ -33,46 +37,57 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(ID_SHARER) long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader(ID_SHARER) long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatus("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(ID_SHARER) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(ID_SHARER) long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(ID_SHARER) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(ID_SHARER) long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{idBooking}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader(ID_SHARER) Long idUser,
-                                                 @PathVariable Long idBooking,
-                                                 @RequestParam(name = "approved") Boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader(ID_SHARER) Long idUser,
+                                                       @PathVariable Long idBooking,
+                                                       @RequestParam(name = "approved") Boolean approved) {
         log.info("Approve booking id = {}, status = {}", idBooking, approved);
         return bookingClient.approveBooking(idUser, idBooking, approved);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> approveBookings(@RequestHeader(ID_SHARER) Long idUser,
+                                                        @RequestBody @Valid @Size(min = 1, max = 500)
+                                                        List<BookingDecisionDto> decisions) {
+        log.info("Approve {} bookings, userId={}", decisions.size(), idUser);
+        return bookingClient.approveBookings(idUser, decisions);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllOwnerBookings(@RequestHeader(ID_SHARER) Long idUser,
-                                                      @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
-                                                      @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-                                                      @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
-        log.info("Get all bookings from owner id = {}, with state {}, from={}, size={}", idUser, stateParam, from, size);
+    public Mono<ResponseEntity<Object>> getAllOwnerBookings(@RequestHeader(ID_SHARER) Long idUser,
+                                                            @RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+                                                            @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+                                                            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size,
+                                                            @RequestParam(required = false) String cursor) {
+        log.info("Get all bookings from owner id = {}, with state {}, from={}, size={}, cursor={}",
+                idUser, stateParam, from, size, cursor);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatus("Unknown state: " + stateParam));
-        return bookingClient.getAllOwnerBookings(idUser, state, from, size);
+        return bookingClient.getAllOwnerBookings(idUser, state, from, size, cursor);
     }
 }
@@ -1,92 +1,238 @@
 package ru.practicum.shareit.client;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static ru.practicum.shareit.client.Variables.ID_SHARER;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION,
+            HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE, HttpHeaders.DATE);
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     protected final RestTemplate rest;
+    private final WebClient webClient;
+    private final boolean reactive;
+    private final boolean passthrough;
+    private final RequestCoalescer coalescer;
+    private final ResponseCache responseCache;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final ClientHttpRequestFactory streamingRequestFactory;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, ClientSupport support, String baseUrl) {
         this.rest = rest;
+        this.webClient = support.webClient(baseUrl);
+        this.reactive = support.isReactive();
+        this.passthrough = support.isPassthrough();
+        this.coalescer = support.coalescer();
+        this.responseCache = support.responseCache();
+        this.circuitBreaker = support.circuitBreaker(getClass().getSimpleName());
+        this.bulkhead = support.bulkhead(getClass().getSimpleName());
+        this.streamingRequestFactory = support.streamingRequestFactory();
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * GET одной сущности: только такие ответы сохраняются в кэше ответов
+     */
+    protected Mono<ResponseEntity<Object>> getEntity(String path, @Nullable Long userId) {
+        return sendGet(path, userId, null, true);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, @Nullable Map<String, Object> parameters) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, @Nullable Map<String, Object> parameters) {
         return patch(path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * Отправить тело запроса потоком, не читая его в память. Ответ сервера передается клиенту как есть.
+     */
+    protected Mono<ResponseEntity<Object>> postStream(String path, long userId, MediaType contentType, InputStream body) {
+        HttpHeaders headers = defaultHeaders(userId, null);
+        headers.setContentType(contentType);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON));
+        if (reactive) {
+            Flux<DataBuffer> buffers = DataBufferUtils.readInputStream(() -> body,
+                            DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE)
+                    .subscribeOn(Schedulers.boundedElastic());
+            return protect(webClient.post()
+                    .uri(path)
+                    .headers(requestHeaders -> requestHeaders.addAll(headers))
+                    .body(BodyInserters.fromDataBuffers(buffers))
+                    .exchangeToMono(this::joinedResponse));
+        }
+        HttpEntity<InputStreamResource> requestEntity = new HttpEntity<>(new InputStreamResource(body), headers);
+        return protect(Mono.fromCallable(() ->
+                streamRequest(streamingRequestFactory, HttpMethod.POST, path, null, requestEntity)));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (method != HttpMethod.GET) {
+            return sendRequest(method, path, userId, parameters, body, null);
+        }
+        return sendGet(path, userId, parameters, false);
+    }
+
+    private Mono<ResponseEntity<Object>> sendGet(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                 boolean cacheable) {
+        String key = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of()) + " " + userId;
+        if (coalescer.isEnabled()) {
+            return coalescer.execute(HttpMethod.GET + " " + key,
+                    () -> exchangeGet(key, path, userId, parameters, cacheable), BaseClient::readBody);
+        }
+        return exchangeGet(key, path, userId, parameters, cacheable);
+    }
+
+    /**
+     * GET одной сущности перепроверяет сохраненный ответ через If-None-Match. В память читаются
+     * только ответ 304 и ответы, которые поместятся в кэш, остальные передаются потоком.
+     */
+    private Mono<ResponseEntity<Object>> exchangeGet(String key, String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                     boolean cacheable) {
+        if (!cacheable || !responseCache.isEnabled()) {
+            return sendRequest(HttpMethod.GET, path, userId, parameters, null, null);
+        }
+        return Mono.defer(() -> {
+            ResponseEntity<Object> cached = responseCache.get(key);
+            String etag = cached != null ? cached.getHeaders().getETag() : null;
+            return sendRequest(HttpMethod.GET, path, userId, parameters, null, etag)
+                    .map(response -> response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value()
+                            || responseCache.fits(response) ? readBody(response) : response)
+                    .map(response -> responseCache.update(key, cached, response));
+        });
+    }
+
+    /**
+     * Запрос через ограничение одновременных запросов и автомат защиты клиента.
+     * Ответы 5xx и медленные ответы учитываются автоматом как неуспешные.
+     */
+    private <T> Mono<ResponseEntity<Object>> sendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String etag) {
+        return protect(reactive
+                ? exchangeReactive(method, path, userId, parameters, body, etag)
+                : Mono.fromCallable(() -> exchangeBlocking(method, path, userId, parameters, body, etag)));
+    }
+
+    private Mono<ResponseEntity<Object>> protect(Mono<ResponseEntity<Object>> request) {
+        return request
+                .onErrorMap(WebClientRequestException.class, BaseClient::resourceAccessException)
+                .flatMap(response -> response.getStatusCodeValue() >= 500
+                        ? Mono.<ResponseEntity<Object>>error(new ServerErrorResponse(response))
+                        : Mono.just(response))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorResume(ServerErrorResponse.class, e -> Mono.just(e.getResponse()));
+    }
+
+    /**
+     * Ошибка соединения неблокирующего клиента в том же виде, что и у RestTemplate,
+     * чтобы оба режима отвечали клиенту одинаково
+     */
+    private static ResourceAccessException resourceAccessException(WebClientRequestException e) {
+        Throwable cause = e.getMostSpecificCause();
+        return new ResourceAccessException("I/O error on " + e.getMethod() + " request for \"" + e.getUri() + "\": "
+                + cause.getMessage(), cause instanceof IOException ? (IOException) cause : new IOException(cause));
+    }
+
+    private <T> ResponseEntity<Object> exchangeBlocking(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String etag) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId, etag));
+        if (passthrough) {
+            return streamRequest(rest.getRequestFactory(), method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -101,13 +247,133 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    /**
+     * Отправить запрос и вернуть тело ответа как поток байт. Соединение возвращается в пул,
+     * когда Spring MVC дочитает и закроет поток при записи ответа клиенту.
+     */
+    private <T> ResponseEntity<Object> streamRequest(ClientHttpRequestFactory requestFactory, HttpMethod method, String path,
+                                                     @Nullable Map<String, Object> parameters,
+                                                     HttpEntity<T> requestEntity) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = requestFactory.createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            response = request.execute();
+            ClientHttpResponse upstream = response;
+            InputStream body = new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() {
+                    upstream.close();
+                }
+            };
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(gatewayHeaders(response.getHeaders()))
+                    .body(new InputStreamResource(body));
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Прочитать поток ответа в массив байт: ответ может быть отдан нескольким клиентам
+     * или сохранен в кэше, а поток можно прочитать только один раз
+     */
+    private static ResponseEntity<Object> readBody(ResponseEntity<Object> response) {
+        if (!(response.getBody() instanceof InputStreamResource)) {
+            return response;
+        }
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            return ResponseEntity.status(response.getStatusCodeValue())
+                    .headers(response.getHeaders())
+                    .body(body.readAllBytes());
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on reading response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Неблокирующий запрос: поток сервлета освобождается, пока сервер обрабатывает запрос.
+     * Ответы преобразуются так же, как в блокирующем режиме.
+     */
+    private <T> Mono<ResponseEntity<Object>> exchangeReactive(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String etag) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId, etag)));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        if (passthrough) {
+            return streamResponse(spec);
+        }
+        return spec.exchangeToMono(this::prepareGatewayResponse);
+    }
+
+    /**
+     * Ответ сервера как есть: тело передается клиенту по мере получения буферов,
+     * не собирается в памяти и не ограничено лимитом кодеков
+     */
+    private static Mono<ResponseEntity<Object>> streamResponse(WebClient.RequestHeadersSpec<?> spec) {
+        return spec.retrieve()
+                .onRawStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCodeValue())
+                        .headers(gatewayHeaders(response.getHeaders()))
+                        .body(new InputStreamResource(new DataBufferInputStream(response.getBody()))));
+    }
+
+    private Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        int status = response.rawStatusCode();
+        if (status >= 400) {
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(EMPTY_BODY)
+                    .map(bytes -> ResponseEntity.status(status).body(bytes));
+        }
+        HttpHeaders headers = status < 300 ? gatewayHeaders(response.headers().asHttpHeaders()) : HttpHeaders.EMPTY;
+        return response.bodyToMono(Object.class)
+                .map(responseBody -> ResponseEntity.status(status).headers(headers).body(responseBody))
+                .defaultIfEmpty(ResponseEntity.status(status).headers(headers).build());
+    }
+
+    /**
+     * Ответ пакетной операции не ограничен по размеру, поэтому буферы собираются напрямую, минуя лимит кодеков
+     */
+    private Mono<ResponseEntity<Object>> joinedResponse(ClientResponse response) {
+        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(EMPTY_BODY)
+                .map(bytes -> ResponseEntity.status(response.rawStatusCode())
+                        .headers(gatewayHeaders(response.headers().asHttpHeaders()))
+                        .body(bytes));
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String etag) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set(ID_SHARER, String.valueOf(userId));
         }
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        return headers;
+    }
+
+    private static HttpHeaders gatewayHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
         return headers;
     }
 
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Режим выполнения запросов к серверу
+ */
+public enum ClientMode {
+    /**
+     * RestTemplate: поток сервлета ждет ответа сервера
+     */
+    BLOCKING,
+    /**
+     * WebClient: поток сервлета освобождается до получения ответа
+     */
+    REACTIVE
+}
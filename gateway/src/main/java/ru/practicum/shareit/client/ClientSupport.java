@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Общие настройки клиентов сервера: режим выполнения запросов, неблокирующий HTTP-клиент,
+ * объединение одинаковых запросов, кэш ответов и защита от перегрузки сервера.
+ * Без passthrough неблокирующий клиент читает ответ в память целиком, поэтому лимит кодеков поднят
+ * с 256 КБ до shareit-server.http.max-in-memory-size: страница списка может быть больше.
+ */
+@Component
+public class ClientSupport {
+    private final ClientMode mode;
+    private final boolean passthrough;
+    private final WebClient.Builder webClientBuilder;
+    private final RequestCoalescer coalescer;
+    private final ResponseCache responseCache;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ClientHttpRequestFactory streamingRequestFactory;
+
+    public ClientSupport(@Value("${shareit-server.client-mode:blocking}") ClientMode mode,
+                         @Value("${shareit-server.passthrough:false}") boolean passthrough,
+                         @Value("${shareit-server.http.max-in-memory-size:16MB}") DataSize maxInMemorySize,
+                         WebClient.Builder webClientBuilder,
+                         ClientHttpConnector reactiveConnector,
+                         RequestCoalescer coalescer,
+                         ResponseCache responseCache,
+                         CircuitBreakerRegistry circuitBreakerRegistry,
+                         BulkheadRegistry bulkheadRegistry,
+                         @Qualifier("streamingRequestFactory") ClientHttpRequestFactory streamingRequestFactory) {
+        this.mode = mode;
+        this.passthrough = passthrough;
+        this.webClientBuilder = webClientBuilder
+                .clientConnector(reactiveConnector)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()));
+        this.coalescer = coalescer;
+        this.responseCache = responseCache;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.streamingRequestFactory = streamingRequestFactory;
+    }
+
+    public boolean isReactive() {
+        return mode == ClientMode.REACTIVE;
+    }
+
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+
+    public RequestCoalescer coalescer() {
+        return coalescer;
+    }
+
+    public ResponseCache responseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Автомат защиты клиента: настройки resilience4j.circuitbreaker.instances.{имя класса клиента}
+     */
+    public CircuitBreaker circuitBreaker(String client) {
+        return circuitBreakerRegistry.circuitBreaker(client);
+    }
+
+    /**
+     * Ограничение одновременных запросов клиента: настройки resilience4j.bulkhead.instances.{имя класса клиента}
+     */
+    public Bulkhead bulkhead(String client) {
+        return bulkheadRegistry.bulkhead(client);
+    }
+
+    public ClientHttpRequestFactory streamingRequestFactory() {
+        return streamingRequestFactory;
+    }
+
+    public WebClient webClient(String baseUrl) {
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.client;
+
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Поток чтения поверх тела ответа неблокирующего клиента. Следующий буфер запрашивается,
+ * когда читатель забрал предыдущий, поэтому в памяти не больше двух буферов тела.
+ * Ошибка тела отдается читателю как IOException, закрытие потока отменяет чтение ответа.
+ */
+class DataBufferInputStream extends InputStream {
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+    private final BodySubscriber subscriber = new BodySubscriber();
+    private volatile boolean closed;
+    private DataBuffer current;
+    private IOException error;
+    private boolean done;
+
+    DataBufferInputStream(Flux<DataBuffer> body) {
+        body.subscribe(subscriber);
+    }
+
+    @Override
+    public int read() throws IOException {
+        DataBuffer buffer = next();
+        return buffer == null ? -1 : buffer.read() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        DataBuffer buffer = next();
+        if (buffer == null) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.readableByteCount());
+        buffer.read(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        subscriber.dispose();
+        releaseCurrent();
+        drain();
+    }
+
+    /**
+     * Буфер с непрочитанными байтами или null в конце тела
+     */
+    private DataBuffer next() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (current == null || current.readableByteCount() == 0) {
+            releaseCurrent();
+            if (done) {
+                if (error != null) {
+                    throw error;
+                }
+                return null;
+            }
+            Object signal;
+            try {
+                signal = signals.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading response body");
+            }
+            if (signal instanceof DataBuffer) {
+                current = (DataBuffer) signal;
+                subscriber.request(1);
+            } else {
+                done = true;
+                if (signal instanceof Throwable) {
+                    Throwable cause = (Throwable) signal;
+                    error = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+            }
+        }
+        return current;
+    }
+
+    private void releaseCurrent() {
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+    }
+
+    private void drain() {
+        Object signal;
+        while ((signal = signals.poll()) != null) {
+            if (signal instanceof DataBuffer) {
+                DataBufferUtils.release((DataBuffer) signal);
+            }
+        }
+    }
+
+    private final class BodySubscriber extends BaseSubscriber<DataBuffer> {
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(DataBuffer buffer) {
+            signals.add(buffer);
+            if (closed) {
+                drain();
+            }
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            signals.add(END);
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            signals.add(throwable);
+        }
+    }
+}
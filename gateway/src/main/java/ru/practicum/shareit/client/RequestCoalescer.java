@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Объединение одинаковых одновременных запросов: пока запрос к серверу выполняется,
+ * все такие же запросы ждут его ответа вместо отправки собственного.
+ * Ответ без ожидающих передается как есть, в том числе потоком.
+ */
+@Component
+public class RequestCoalescer {
+    private static final String REQUESTS_METRIC = "gateway.coalescing.requests";
+
+    private final boolean enabled;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstreamRequests;
+    private final Counter coalescedRequests;
+
+    public RequestCoalescer(@Value("${shareit-server.coalesce-gets:true}") boolean enabled, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.upstreamRequests = Counter.builder(REQUESTS_METRIC)
+                .description("Запросы, отправленные на сервер")
+                .tag("result", "upstream")
+                .register(registry);
+        this.coalescedRequests = Counter.builder(REQUESTS_METRIC)
+                .description("Запросы, получившие ответ уже выполняющегося запроса")
+                .tag("result", "coalesced")
+                .register(registry);
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, Map::size)
+                .description("Выполняющиеся запросы, к которым могут присоединиться другие")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Выполнить запрос или присоединиться к уже выполняющемуся запросу с тем же ключом.
+     * Если к запросу присоединились другие, его ответ перед раздачей проходит через shared:
+     * например, тело-поток читается в память, чтобы его получил каждый.
+     */
+    public Mono<ResponseEntity<Object>> execute(String key, Supplier<Mono<ResponseEntity<Object>>> request,
+                                                UnaryOperator<ResponseEntity<Object>> shared) {
+        return Mono.defer(() -> {
+            Flight created = new Flight(key, request.get(), shared);
+            Flight flight = inFlight.compute(key, (k, current) -> {
+                if (current == null) {
+                    return created;
+                }
+                current.waiters.incrementAndGet();
+                return current;
+            });
+            if (flight != created) {
+                coalescedRequests.increment();
+            } else {
+                upstreamRequests.increment();
+            }
+            return flight.response;
+        });
+    }
+
+    /**
+     * Выполняющийся запрос. Ответ один раз получается от сервера и раздается всем подписчикам.
+     * С приходом ответа запрос убирается из выполняющихся, после этого число ожидающих не меняется.
+     */
+    private final class Flight {
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final Mono<ResponseEntity<Object>> response;
+
+        private Flight(String key, Mono<ResponseEntity<Object>> request, UnaryOperator<ResponseEntity<Object>> shared) {
+            this.response = request
+                    .map(response -> {
+                        inFlight.remove(key, this);
+                        return waiters.get() > 0 ? shared.apply(response) : response;
+                    })
+                    .doFinally(signal -> inFlight.remove(key, this))
+                    .share();
+        }
+    }
+}
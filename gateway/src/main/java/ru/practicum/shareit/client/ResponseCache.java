@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Ответы сервера с ETag по пользователю и адресу запроса. Каждый запрос перепроверяется
+ * на сервере через If-None-Match: на 304 отдается сохраненный ответ, устаревших ответов нет.
+ * Кэш ограничен суммарным размером тел, ответы больше max-entry-size не сохраняются.
+ */
+@Component
+public class ResponseCache {
+    private static final String REVALIDATIONS_METRIC = "gateway.response-cache.revalidations";
+
+    private final boolean enabled;
+    private final long maxEntrySize;
+    private final Cache<String, ResponseEntity<Object>> responses;
+    private final Counter notModified;
+    private final Counter modified;
+
+    public ResponseCache(@Value("${shareit-server.response-cache.enabled:false}") boolean enabled,
+                         @Value("${shareit-server.response-cache.max-weight:64MB}") DataSize maxWeight,
+                         @Value("${shareit-server.response-cache.max-entry-size:64KB}") DataSize maxEntrySize,
+                         @Value("${shareit-server.response-cache.ttl:10m}") Duration ttl,
+                         MeterRegistry registry) {
+        this.enabled = enabled;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((String key, ResponseEntity<Object> response) -> (int) size(response))
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        this.notModified = Counter.builder(REVALIDATIONS_METRIC)
+                .description("Перепроверки, на которые сервер ответил 304")
+                .tag("result", "not-modified")
+                .register(registry);
+        this.modified = Counter.builder(REVALIDATIONS_METRIC)
+                .description("Перепроверки, на которые сервер вернул новый ответ")
+                .tag("result", "modified")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, responses, "gateway-responses");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ответ можно сохранить: размер тела известен и не больше max-entry-size.
+     * Тело-поток нужно прочитать в память до сохранения.
+     */
+    public boolean fits(ResponseEntity<Object> response) {
+        return withinLimit(response.getBody() instanceof InputStreamResource
+                ? response.getHeaders().getContentLength()
+                : size(response));
+    }
+
+    /**
+     * Сохраненный ответ, его ETag отправляется в If-None-Match
+     */
+    @Nullable
+    public ResponseEntity<Object> get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Обработать ответ на условный запрос: на 304 вернуть сохраненный ответ,
+     * успешный ответ с ETag сохранить, иначе удалить сохраненный ответ
+     */
+    public ResponseEntity<Object> update(String key, @Nullable ResponseEntity<Object> cached,
+                                         ResponseEntity<Object> response) {
+        if (cached != null) {
+            if (response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value()) {
+                notModified.increment();
+                return cached;
+            }
+            modified.increment();
+        }
+        if (response.getStatusCodeValue() == HttpStatus.OK.value() && response.getHeaders().getETag() != null
+                && withinLimit(size(response))) {
+            responses.put(key, response);
+        } else {
+            responses.invalidate(key);
+        }
+        return response;
+    }
+
+    private boolean withinLimit(long size) {
+        return size >= 0 && size <= maxEntrySize;
+    }
+
+    /**
+     * Размер тела в байтах: длина массива или Content-Length разобранного ответа, -1 если неизвестен
+     */
+    private static long size(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        if (body instanceof InputStreamResource) {
+            return -1;
+        }
+        return body == null ? 0 : response.getHeaders().getContentLength();
+    }
+}
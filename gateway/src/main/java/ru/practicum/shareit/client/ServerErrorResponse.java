@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Ответ сервера со статусом 5xx. Передается как ошибка, чтобы автомат защиты учел его
+ * как неуспешный вызов, и снова становится обычным ответом после автомата.
+ */
+class ServerErrorResponse extends RuntimeException {
+    private final transient ResponseEntity<Object> response;
+
+    ServerErrorResponse(ResponseEntity<Object> response) {
+        super("Server responded with status " + response.getStatusCodeValue(), null, false, false);
+        this.response = response;
+    }
+
+    ResponseEntity<Object> getResponse() {
+        return response;
+    }
+}
@@ -3,12 +3,18 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientSupport;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -16,28 +22,36 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ClientSupport support) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                support,
+                serverUrl + API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> createItem(Long idUser, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(Long idUser, ItemDto itemDto) {
         return post("", idUser, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long idUser, Long id, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItems(Long idUser, MediaType contentType, InputStream items) {
+        return postStream("/batch", idUser, contentType, items);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Long idUser, Long id, ItemDto itemDto) {
         return patch("/" + id, idUser, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long idUser, Long id) {
-        return get("/" + id, idUser);
+    public Mono<ResponseEntity<Object>> getItemById(Long idUser, Long id) {
+        return getEntity("/" + id, idUser);
     }
 
-    public ResponseEntity<Object> getAllUserItems(Long idUser, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllUserItems(Long idUser, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -46,16 +60,22 @@ public class ItemClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> findItems(Long idUser, String text, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
-                "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", idUser, parameters);
+    public Mono<ResponseEntity<Object>> findItems(Long idUser, String text, Integer from, Integer size,
+                                                  LocalDateTime start, LocalDateTime end) {
+        String query = "/search?text={text}&from={from}&size={size}";
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (start != null) {
+            query += "&start={start}&end={end}";
+            parameters.put("start", start);
+            parameters.put("end", end);
+        }
+        return get(query, idUser, parameters);
     }
 
-    public ResponseEntity<Object> addComment(Long idUser, Long id, CommentDto comment) {
+    public Mono<ResponseEntity<Object>> addComment(Long idUser, Long id, CommentDto comment) {
         return post("/" + id + "/comment", idUser, comment);
     }
 
@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +16,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.UnsupportedStatus;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareit.client.Variables.ID_SHARER;
 
@@ -28,48 +35,64 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(ID_SHARER) Long idUser,
-                                             @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(ID_SHARER) Long idUser,
+                                                   @Valid @RequestBody ItemDto itemDto) {
         log.info("Create item {} from user id = {}", itemDto, idUser);
         return itemClient.createItem(idUser, itemDto);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Object>> createItems(@RequestHeader(ID_SHARER) Long idUser,
+                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    InputStream items) {
+        log.info("Create items batch from user id = {}", idUser);
+        return itemClient.createItems(idUser, contentType, items);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(ID_SHARER) Long idUser,
-                                             @PathVariable Long id,
-                                             @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(ID_SHARER) Long idUser,
+                                                   @PathVariable Long id,
+                                                   @RequestBody ItemDto itemDto) {
         log.info("Update item id = {} by user id = {} with itemDto {} ", id, idUser, itemDto);
         return itemClient.updateItem(idUser, id, itemDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(ID_SHARER) Long idUser,
-                                              @PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(ID_SHARER) Long idUser,
+                                                    @PathVariable Long id) {
         log.info("Get item by id = {} by user id = {}", id, idUser);
         return itemClient.getItemById(idUser, id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUserItems(@RequestHeader(ID_SHARER) Long idUser,
-                                                  @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-                                                  @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+    public Mono<ResponseEntity<Object>> getAllUserItems(@RequestHeader(ID_SHARER) Long idUser,
+                                                        @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+                                                        @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
         log.info("Get all items by user id {}, from {}, size {}", idUser, from, size);
         return itemClient.getAllUserItems(idUser, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> findItems(@RequestHeader(ID_SHARER) Long idUser,
-                                            @RequestParam(name = "text") String text,
-                                            @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-                                            @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
-        log.info("Find items by user id = {}, with text {}, from {}, size {}", idUser, text, from, size);
-        return itemClient.findItems(idUser, text, from, size);
+    public Mono<ResponseEntity<Object>> findItems(@RequestHeader(ID_SHARER) Long idUser,
+                                                  @RequestParam(name = "text") String text,
+                                                  @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+                                                  @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Find items by user id = {}, with text {}, from {}, size {}, start {}, end {}",
+                idUser, text, from, size, start, end);
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            throw new UnsupportedStatus("Период поиска указан некорректно");
+        }
+        return itemClient.findItems(idUser, text, from, size, start, end);
     }
 
     @PostMapping("/{id}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(ID_SHARER) Long idUser,
-                                             @PathVariable Long id,
-                                             @Valid @RequestBody CommentDto comment) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(ID_SHARER) Long idUser,
+                                                   @PathVariable Long id,
+                                                   @Valid @RequestBody CommentDto comment) {
         log.info("Add comment {}, for item {} from user id {}", comment, id, idUser);
         return itemClient.addComment(idUser, id, comment);
     }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Группа запросов с общим лимитом. Лимит по умолчанию переопределяется свойствами
+ * shareit.rate-limit.{key}.rate (запросов в секунду) и shareit.rate-limit.{key}.burst.
+ */
+public enum RateLimitGroup {
+    /**
+     * Создание бронирования: POST /bookings
+     */
+    BOOKING_CREATE("booking-create", 5, 10),
+    /**
+     * Поиск вещей: GET /items/search
+     */
+    SEARCH("search", 10, 20),
+    /**
+     * Остальные запросы
+     */
+    DEFAULT("default", 50, 100);
+
+    private final String key;
+    private final double defaultRate;
+    private final int defaultBurst;
+
+    RateLimitGroup(String key, double defaultRate, int defaultBurst) {
+        this.key = key;
+        this.defaultRate = defaultRate;
+        this.defaultBurst = defaultBurst;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getDefaultRate() {
+        return defaultRate;
+    }
+
+    public int getDefaultBurst() {
+        return defaultBurst;
+    }
+
+    public static RateLimitGroup of(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        if (HttpMethod.POST.matches(method) && "/bookings".equals(path)) {
+            return BOOKING_CREATE;
+        }
+        if (HttpMethod.GET.matches(method) && "/items/search".equals(path)) {
+            return SEARCH;
+        }
+        return DEFAULT;
+    }
+}
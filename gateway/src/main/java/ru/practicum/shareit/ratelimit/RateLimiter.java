@@ -0,0 +1,118 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Лимиты запросов по пользователю и группе запросов.
+ * Корзины неактивных пользователей удаляются из кэша: после простоя корзина все равно полная.
+ * Некорректные rate и burst останавливают запуск шлюза.
+ */
+@Component
+public class RateLimiter {
+    private static final String PREFIX = "shareit.rate-limit.";
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final boolean enabled;
+    private final Map<RateLimitGroup, Budget> budgets = new EnumMap<>(RateLimitGroup.class);
+    private final Map<RateLimitGroup, Counter> rejected = new EnumMap<>(RateLimitGroup.class);
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RateLimiter(Environment environment,
+                       @Value("${shareit.rate-limit.enabled:false}") boolean enabled,
+                       @Value("${shareit.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                       @Value("${shareit.rate-limit.max-buckets:1000000}") long maxBuckets,
+                       MeterRegistry registry) {
+        this(environment, enabled, idleTimeout, maxBuckets, registry, System::nanoTime);
+    }
+
+    RateLimiter(Environment environment, boolean enabled, Duration idleTimeout, long maxBuckets,
+                MeterRegistry registry, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.nanoClock = nanoClock;
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            double rate = environment.getProperty(PREFIX + group.getKey() + ".rate", Double.class,
+                    group.getDefaultRate());
+            int burst = environment.getProperty(PREFIX + group.getKey() + ".burst", Integer.class,
+                    group.getDefaultBurst());
+            budgets.put(group, Budget.of(group, rate, burst));
+            rejected.put(group, Counter.builder("gateway.rate-limit.rejected")
+                    .description("Запросы, отклоненные из-за превышения лимита")
+                    .tag("group", group.getKey())
+                    .register(registry));
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        Gauge.builder("gateway.rate-limit.buckets", buckets, Cache::estimatedSize)
+                .description("Корзины активных пользователей")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Списать токен из корзины клиента
+     *
+     * @return Duration.ZERO, если запрос разрешен, иначе время до следующего разрешенного запроса
+     */
+    public Duration acquire(RateLimitGroup group, String client) {
+        Budget budget = budgets.get(group);
+        TokenBucket bucket = buckets.get(group.getKey() + ":" + client, key -> new TokenBucket());
+        long wait = bucket.tryAcquire(nanoClock.getAsLong(), budget.interval, budget.tolerance);
+        if (wait == 0) {
+            return Duration.ZERO;
+        }
+        rejected.get(group).increment();
+        return Duration.ofNanos(wait);
+    }
+
+    private static final class Budget {
+        private final long interval;
+        private final long tolerance;
+
+        private Budget(long interval, long tolerance) {
+            this.interval = interval;
+            this.tolerance = tolerance;
+        }
+
+        /**
+         * Интервал пополнения должен быть не меньше 1 нс, а емкость корзины - помещаться в long:
+         * иначе переполнение отключает лимит или запрещает все запросы
+         */
+        static Budget of(RateLimitGroup group, double rate, int burst) {
+            String prefix = PREFIX + group.getKey();
+            if (!(rate > 0 && rate <= NANOS_PER_SECOND)) {
+                throw new IllegalArgumentException(prefix + ".rate должен быть в диапазоне (0, "
+                        + NANOS_PER_SECOND + "] запросов в секунду: " + rate);
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException(prefix + ".burst должен быть не меньше 1: " + burst);
+            }
+            long interval = (long) (NANOS_PER_SECOND / rate);
+            try {
+                return new Budget(interval, Math.multiplyExact(interval, burst));
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(prefix + ".burst слишком велик для " + prefix + ".rate="
+                        + rate + ": " + burst, e);
+            }
+        }
+    }
+}
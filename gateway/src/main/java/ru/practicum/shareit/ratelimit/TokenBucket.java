@@ -0,0 +1,33 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов в виде GCRA: хранится только теоретическое время прихода следующего запроса.
+ * Списание токена - один compareAndSet без блокировок.
+ */
+class TokenBucket {
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Списать токен
+     *
+     * @param now       текущее время, нс
+     * @param interval  интервал пополнения одного токена, нс
+     * @param tolerance емкость корзины, нс
+     * @return 0, если токен списан, иначе время в нс до появления токена
+     */
+    long tryAcquire(long now, long interval, long tolerance) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -4,10 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientSupport;
 
 import java.util.Map;
 
@@ -17,24 +19,28 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         ClientSupport support) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                support,
+                serverUrl + API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> createRequest(Long idUser, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(Long idUser, ItemRequestDto itemRequestDto) {
         return post("", idUser, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllRequestsById(Long idUser) {
+    public Mono<ResponseEntity<Object>> getAllRequestsById(Long idUser) {
         return get("", idUser);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long idUser, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(Long idUser, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -42,7 +48,7 @@ public class RequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", idUser, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(Long idUser, Long requestId) {
-        return get("/" + requestId, idUser);
+    public Mono<ResponseEntity<Object>> getRequestById(Long idUser, Long requestId) {
+        return getEntity("/" + requestId, idUser);
     }
 }
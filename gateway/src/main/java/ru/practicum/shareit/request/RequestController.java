@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -27,29 +28,29 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(ID_SHARER) Long idUser,
-                                                @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(@RequestHeader(ID_SHARER) Long idUser,
+                                                      @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Create request {}, from user id {}", itemRequestDto, idUser);
         return requestClient.createRequest(idUser, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllRequestsById(@RequestHeader(ID_SHARER) Long idUser) {
+    public Mono<ResponseEntity<Object>> getAllRequestsById(@RequestHeader(ID_SHARER) Long idUser) {
         log.info("Get all requests from user id {}", idUser);
         return requestClient.getAllRequestsById(idUser);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(ID_SHARER) Long idUser,
-                                                 @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-                                                 @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader(ID_SHARER) Long idUser,
+                                                       @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
+                                                       @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
         log.info("Get all requests from user id {}, from {}, size {}", idUser, from, size);
         return requestClient.getAllRequests(idUser, from, size);
     }
 
     @GetMapping("{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(ID_SHARER) Long idUser,
-                                                 @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader(ID_SHARER) Long idUser,
+                                                       @PathVariable Long requestId) {
         log.info("Get request by id {}, from user id {}", requestId, idUser);
         return requestClient.getRequestById(idUser, requestId);
     }
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 
@@ -24,33 +25,33 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long id) {
         log.info("Get user from userId={}", id);
         return userClient.getUserById(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody @Valid UserDto userDto) {
         log.info("Creating user {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long id,
-                                             @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long id,
+                                                   @RequestBody UserDto userDto) {
         log.info("Update id = {} from userDto {}", id, userDto);
         return userClient.updateUser(id, userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.info("Get all users");
         return userClient.getAllUsers();
     }
 
     @DeleteMapping("{id}")
-    public void deleteUser(@PathVariable Long id) {
+    public Mono<Void> deleteUser(@PathVariable Long id) {
         log.info("Delete user id = {}", id);
-        userClient.deleteUser(id);
+        return userClient.deleteUser(id);
     }
 }
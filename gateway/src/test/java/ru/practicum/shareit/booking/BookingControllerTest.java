@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.ratelimit.RateLimitFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.client.Variables.ID_SHARER;
+
+@WebMvcTest(controllers = BookingController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = RateLimitFilter.class))
+public class BookingControllerTest {
+    @MockBean
+    private BookingClient bookingClient;
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void approveBookingsTest() throws Exception {
+        when(bookingClient.approveBookings(anyLong(), anyList()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of())));
+
+        MvcResult result = mvc.perform(approveBookings("[{\"bookingId\":1,\"approved\":true}]"))
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).approveBookings(eq(1L), argThat(decisions -> decisions.size() == 1
+                && decisions.get(0).getBookingId() == 1L && decisions.get(0).getApproved()));
+    }
+
+    @Test
+    void approveBookingsWrongSizeTest() throws Exception {
+        String tooMany = "[" + String.join(",", Collections.nCopies(501, "{\"bookingId\":1,\"approved\":true}")) + "]";
+
+        mvc.perform(approveBookings("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("decisions")));
+        mvc.perform(approveBookings(tooMany))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("decisions")));
+
+        verify(bookingClient, never()).approveBookings(anyLong(), anyList());
+    }
+
+    @Test
+    void approveBookingsMissingFieldTest() throws Exception {
+        mvc.perform(approveBookings("[{\"bookingId\":1,\"approved\":true},{\"approved\":true}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("bookingId")));
+        mvc.perform(approveBookings("[{\"bookingId\":1}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("approved")));
+
+        verify(bookingClient, never()).approveBookings(anyLong(), anyList());
+    }
+
+    private static RequestBuilder approveBookings(String body) {
+        return patch("/bookings/batch")
+                .content(body)
+                .header(ID_SHARER, 1)
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON);
+    }
+}
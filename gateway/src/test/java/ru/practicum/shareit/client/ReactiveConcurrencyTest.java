@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static ru.practicum.shareit.client.Variables.ID_SHARER;
+
+/**
+ * Неблокирующий клиент не держит поток Tomcat на время запроса к серверу: медленная заглушка
+ * получает одновременно больше запросов, чем потоков у Tomcat, и отвечает только когда дождалась всех
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=" + ReactiveConcurrencyTest.THREADS,
+                "server.tomcat.threads.min-spare=1",
+                "shareit-server.client-mode=reactive",
+                "shareit-server.coalesce-gets=false",
+                "shareit-server.response-cache.enabled=false",
+                "shareit.rate-limit.enabled=false"
+        })
+public class ReactiveConcurrencyTest {
+    static final int THREADS = 2;
+    private static final int REQUESTS = THREADS * 5;
+    private static final CountDownLatch IN_FLIGHT = new CountDownLatch(REQUESTS);
+    private static HttpServer server;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/items", exchange -> {
+            IN_FLIGHT.countDown();
+            boolean allArrived = false;
+            try {
+                allArrived = IN_FLIGHT.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = ("{\"allArrived\":" + allArrived + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Test
+    void moreRequestsInFlightThanTomcatThreadsTest() throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 1; i <= REQUESTS; i++) {
+            responses.add(httpClient.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" + i))
+                            .header(ID_SHARER, "1")
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)));
+        }
+
+        assertThat(IN_FLIGHT.await(10, TimeUnit.SECONDS), equalTo(true));
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            HttpResponse<String> completed = response.get(10, TimeUnit.SECONDS);
+            assertThat(completed.statusCode(), equalTo(200));
+            assertThat(completed.body(), equalTo("{\"allArrived\":true}"));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static ru.practicum.shareit.client.Variables.ID_SHARER;
+
+/**
+ * Неблокирующий клиент в режиме passthrough передает тело ответа потоком:
+ * ответ больше лимита кодеков доходит до клиента целиком
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit-server.client-mode=reactive",
+                "shareit-server.passthrough=true",
+                "shareit-server.http.max-in-memory-size=1KB",
+                "shareit-server.coalesce-gets=false",
+                "shareit-server.response-cache.enabled=false",
+                "shareit.rate-limit.enabled=false"
+        })
+public class ReactivePassthroughTest {
+    private static final byte[] BODY = body(256 * 1024);
+    private static HttpServer server;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream output = exchange.getResponseBody()) {
+                for (int offset = 0; offset < BODY.length; offset += 4096) {
+                    output.write(BODY, offset, Math.min(4096, BODY.length - offset));
+                    output.flush();
+                }
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Test
+    void responseAboveCodecLimitIsStreamedTest() throws Exception {
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items?from=0&size=10"))
+                        .header(ID_SHARER, "1")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode(), equalTo(200));
+        assertThat(Arrays.equals(response.body(), BODY), equalTo(true));
+    }
+
+    /**
+     * JSON-массив заданной длины
+     */
+    private static byte[] body(int length) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) ' ');
+        bytes[0] = '[';
+        bytes[length - 1] = ']';
+        return bytes;
+    }
+}
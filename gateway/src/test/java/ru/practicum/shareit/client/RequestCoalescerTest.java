@@ -0,0 +1,164 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestCoalescerTest {
+    private static final int CALLERS = 16;
+    private static final String KEY = "GET /items 1";
+    private static final String SHARED = "shared";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicBoolean upstreamCancelled = new AtomicBoolean();
+    private MeterRegistry registry;
+    private RequestCoalescer coalescer;
+    private Sinks.One<ResponseEntity<Object>> upstream;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(true, registry);
+        upstream = Sinks.one();
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalRequestsShareOneUpstreamCallTest() throws Exception {
+        List<CompletableFuture<ResponseEntity<Object>>> responses = callConcurrently();
+        upstream.tryEmitValue(ResponseEntity.ok("items"));
+
+        for (CompletableFuture<ResponseEntity<Object>> future : responses) {
+            assertThat(future.get(5, TimeUnit.SECONDS).getBody(), equalTo(SHARED));
+        }
+        assertThat(upstreamCalls.get(), equalTo(1));
+        assertThat(count("coalesced"), equalTo((double) CALLERS - 1));
+        assertThat(inFlight(), equalTo(0.0));
+    }
+
+    @Test
+    void responseWithoutWaitersIsNotSharedTest() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> single = call().toFuture();
+        ResponseEntity<Object> response = ResponseEntity.ok("items");
+
+        upstream.tryEmitValue(response);
+
+        assertThat(single.get(5, TimeUnit.SECONDS), sameInstance(response));
+        assertThat(inFlight(), equalTo(0.0));
+    }
+
+    @Test
+    void errorIsDeliveredToEveryWaiterTest() throws Exception {
+        List<CompletableFuture<ResponseEntity<Object>>> responses = callConcurrently();
+
+        upstream.tryEmitError(new IllegalStateException("server is down"));
+
+        for (CompletableFuture<ResponseEntity<Object>> future : responses) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> future.get(5, TimeUnit.SECONDS));
+            assertThat(exception.getCause(), instanceOf(IllegalStateException.class));
+        }
+        assertThat(upstreamCalls.get(), equalTo(1));
+        assertThat(inFlight(), equalTo(0.0));
+
+        upstream = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> retry = call().toFuture();
+        upstream.tryEmitValue(ResponseEntity.ok("items"));
+
+        assertThat(retry.get(5, TimeUnit.SECONDS).getBody(), equalTo("items"));
+        assertThat(upstreamCalls.get(), equalTo(2));
+    }
+
+    @Test
+    void cancellationTest() {
+        AtomicReference<ResponseEntity<Object>> remaining = new AtomicReference<>();
+        Disposable first = call().subscribe();
+        Disposable second = call().subscribe(remaining::set);
+
+        first.dispose();
+
+        assertThat(upstreamCancelled.get(), equalTo(false));
+        assertThat(inFlight(), equalTo(1.0));
+
+        second.dispose();
+
+        assertThat(upstreamCancelled.get(), equalTo(true));
+        assertThat(inFlight(), equalTo(0.0));
+        assertThat(remaining.get(), nullValue());
+
+        Disposable third = call().subscribe(remaining::set);
+        upstream.tryEmitValue(ResponseEntity.ok("items"));
+
+        assertThat(remaining.get().getBody(), equalTo("items"));
+        assertThat(upstreamCalls.get(), equalTo(2));
+        third.dispose();
+    }
+
+    /**
+     * Все вызовы подписываются из разных потоков до ответа сервера
+     */
+    private List<CompletableFuture<ResponseEntity<Object>>> callConcurrently() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<ResponseEntity<Object>>>> subscriptions = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            subscriptions.add(executor.submit(() -> {
+                start.await();
+                return call().toFuture();
+            }));
+        }
+        start.countDown();
+        List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+        for (Future<CompletableFuture<ResponseEntity<Object>>> subscription : subscriptions) {
+            responses.add(subscription.get(5, TimeUnit.SECONDS));
+        }
+        assertThat(inFlight(), equalTo(1.0));
+        return responses;
+    }
+
+    private Mono<ResponseEntity<Object>> call() {
+        return coalescer.execute(KEY, () -> Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        }).doOnCancel(() -> upstreamCancelled.set(true)), response -> ResponseEntity.ok(SHARED));
+    }
+
+    private double count(String result) {
+        return registry.get("gateway.coalescing.requests").tag("result", result).counter().count();
+    }
+
+    private double inFlight() {
+        return registry.get("gateway.coalescing.in-flight").gauge().value();
+    }
+}
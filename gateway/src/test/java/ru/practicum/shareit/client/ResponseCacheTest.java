@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ResponseCacheTest {
+    private static final String KEY = "/items/1 1";
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new ResponseCache(true, DataSize.ofKilobytes(1), DataSize.ofBytes(100), Duration.ofMinutes(10),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void notModifiedReturnsStoredResponseTest() {
+        ResponseEntity<Object> stored = cache.update(KEY, null, response(new byte[10]));
+
+        ResponseEntity<Object> revalidated = cache.update(KEY, cache.get(KEY),
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"1\"").build());
+
+        assertThat(revalidated, sameInstance(stored));
+    }
+
+    @Test
+    void responseAboveEntryLimitIsNotStoredTest() {
+        cache.update(KEY, null, response(new byte[101]));
+
+        assertThat(cache.get(KEY), nullValue());
+    }
+
+    @Test
+    void streamFitsByContentLengthButIsNotStoredUnreadTest() {
+        ResponseEntity<Object> small = ResponseEntity.ok().eTag("\"1\"").contentLength(10)
+                .body(new InputStreamResource(new ByteArrayInputStream(new byte[10])));
+        ResponseEntity<Object> large = ResponseEntity.ok().eTag("\"1\"").contentLength(101)
+                .body(new InputStreamResource(new ByteArrayInputStream(new byte[101])));
+        ResponseEntity<Object> unknown = ResponseEntity.ok().eTag("\"1\"")
+                .body(new InputStreamResource(new ByteArrayInputStream(new byte[10])));
+
+        assertThat(cache.fits(small), equalTo(true));
+        assertThat(cache.fits(large), equalTo(false));
+        assertThat(cache.fits(unknown), equalTo(false));
+
+        cache.update(KEY, null, small);
+
+        assertThat(cache.get(KEY), nullValue());
+    }
+
+    private static ResponseEntity<Object> response(byte[] body) {
+        return ResponseEntity.ok().eTag("\"1\"").body(body);
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static ru.practicum.shareit.client.Variables.ID_SHARER;
+
+/**
+ * Защита сервера в шлюзе: ответы 5xx учитываются автоматом защиты, открытый автомат
+ * и заполненное ограничение одновременных запросов дают 503. Сервер заменен заглушкой,
+ * режим клиента задают наследники.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit-server.coalesce-gets=false",
+                "shareit-server.response-cache.enabled=false",
+                "shareit.rate-limit.enabled=false",
+                "resilience4j.circuitbreaker.instances.UserClient.sliding-window-size=4",
+                "resilience4j.circuitbreaker.instances.UserClient.minimum-number-of-calls=4",
+                "resilience4j.circuitbreaker.instances.UserClient.wait-duration-in-open-state=1m",
+                "resilience4j.circuitbreaker.instances.UserClient.automatic-transition-from-open-to-half-open-enabled=false",
+                "resilience4j.bulkhead.instances.ItemClient.max-concurrent-calls=1"
+        })
+abstract class ServerProtectionTest {
+    private static final AtomicInteger USER_CALLS = new AtomicInteger();
+    private static HttpServer server;
+    private static CountDownLatch itemRequested;
+    private static CountDownLatch releaseItem;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/users", exchange -> {
+            USER_CALLS.incrementAndGet();
+            respond(exchange, 500, "{\"error\":\"boom\"}");
+        });
+        server.createContext("/items", exchange -> {
+            itemRequested.countDown();
+            try {
+                releaseItem.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{\"id\":1}");
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @BeforeEach
+    public void setUp() {
+        USER_CALLS.set(0);
+        itemRequested = new CountDownLatch(1);
+        releaseItem = new CountDownLatch(1);
+    }
+
+    @Test
+    void serverErrorsOpenCircuitBreakerTest() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThat(get("/users").statusCode(), equalTo(500));
+        }
+
+        HttpResponse<String> rejected = get("/users");
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("UserClient").getState(),
+                equalTo(CircuitBreaker.State.OPEN));
+        assertThat(rejected.statusCode(), equalTo(503));
+        assertThat(rejected.body(), containsString("Сервер временно недоступен"));
+        assertThat(USER_CALLS.get(), equalTo(4));
+    }
+
+    @Test
+    void fullBulkheadTest() throws Exception {
+        CompletableFuture<HttpResponse<String>> first = httpClient.sendAsync(request("/items/1"),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        assertThat(itemRequested.await(10, TimeUnit.SECONDS), equalTo(true));
+
+        HttpResponse<String> rejected = get("/items/2");
+        releaseItem.countDown();
+
+        assertThat(rejected.statusCode(), equalTo(503));
+        assertThat(rejected.body(), containsString("Слишком много одновременных запросов"));
+        assertThat(first.get(10, TimeUnit.SECONDS).statusCode(), equalTo(200));
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(request(path), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(ID_SHARER, "1")
+                .build();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static ru.practicum.shareit.client.Variables.ID_SHARER;
+
+public class RateLimitFilterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimiter rateLimiter = new RateLimiter(new MockEnvironment()
+                .withProperty("shareit.rate-limit.booking-create.rate", "0.4")
+                .withProperty("shareit.rate-limit.booking-create.burst", "1"),
+                true, Duration.ofMinutes(10), 1000, new SimpleMeterRegistry(), clock::get);
+        filter = new RateLimitFilter(rateLimiter, new ObjectMapper());
+    }
+
+    @Test
+    void tooManyRequestsTest() throws Exception {
+        MockHttpServletResponse allowed = perform("POST", "/bookings", "1");
+        MockHttpServletResponse rejected = perform("POST", "/bookings", "1");
+
+        assertThat(allowed.getStatus(), equalTo(200));
+        assertThat(rejected.getStatus(), equalTo(429));
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER), equalTo("3"));
+        assertThat(rejected.getContentAsString(StandardCharsets.UTF_8),
+                equalTo("{\"error\":\"Превышен лимит запросов, повторите через 3 с\"}"));
+        assertThat(perform("POST", "/bookings", "2").getStatus(), equalTo(200));
+        assertThat(perform("GET", "/bookings", "1").getStatus(), equalTo(200));
+
+        clock.addAndGet(Duration.ofMillis(2500).toNanos());
+
+        assertThat(perform("POST", "/bookings", "1").getStatus(), equalTo(200));
+    }
+
+    @Test
+    void retryAfterIsAtLeastOneSecondTest() throws Exception {
+        perform("POST", "/bookings", "1");
+        clock.addAndGet(Duration.ofMillis(2400).toNanos());
+
+        assertThat(perform("POST", "/bookings", "1").getHeader(HttpHeaders.RETRY_AFTER), equalTo("1"));
+    }
+
+    @Test
+    void actuatorIsNotLimitedTest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(chain.getRequest(), notNullValue());
+        }
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader(ID_SHARER, userId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertThat(chain.getRequest() == null, equalTo(response.getStatus() == 429));
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void burstAndRefillTest() {
+        RateLimiter rateLimiter = rateLimiter(new MockEnvironment()
+                .withProperty("shareit.rate-limit.search.rate", "2")
+                .withProperty("shareit.rate-limit.search.burst", "3"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.acquire(RateLimitGroup.SEARCH, "1"), equalTo(Duration.ZERO));
+        }
+        assertThat(rateLimiter.acquire(RateLimitGroup.SEARCH, "1"), equalTo(Duration.ofMillis(500)));
+        assertThat(rateLimiter.acquire(RateLimitGroup.SEARCH, "2"), equalTo(Duration.ZERO));
+        assertThat(rateLimiter.acquire(RateLimitGroup.DEFAULT, "1"), equalTo(Duration.ZERO));
+
+        clock.addAndGet(Duration.ofMillis(300).toNanos());
+
+        assertThat(rateLimiter.acquire(RateLimitGroup.SEARCH, "1"), equalTo(Duration.ofMillis(200)));
+
+        clock.addAndGet(Duration.ofMillis(200).toNanos());
+
+        assertThat(rateLimiter.acquire(RateLimitGroup.SEARCH, "1"), equalTo(Duration.ZERO));
+        assertThat(registry.get("gateway.rate-limit.rejected").tag("group", "search").counter().count(),
+                equalTo(2.0));
+    }
+
+    @Test
+    void invalidSettingsTest() {
+        assertInvalid("shareit.rate-limit.search.rate", "0");
+        assertInvalid("shareit.rate-limit.search.rate", "-1");
+        assertInvalid("shareit.rate-limit.search.rate", "NaN");
+        assertInvalid("shareit.rate-limit.search.rate", "2000000000");
+        assertInvalid("shareit.rate-limit.booking-create.burst", "0");
+
+        final IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> rateLimiter(new MockEnvironment()
+                        .withProperty("shareit.rate-limit.default.rate", "0.000001")
+                        .withProperty("shareit.rate-limit.default.burst", String.valueOf(Integer.MAX_VALUE))));
+        assertThat(exception.getMessage().startsWith("shareit.rate-limit.default.burst"), equalTo(true));
+    }
+
+    private void assertInvalid(String property, String value) {
+        final IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> rateLimiter(new MockEnvironment().withProperty(property, value)));
+        assertThat(exception.getMessage().startsWith(property), equalTo(true));
+    }
+
+    private RateLimiter rateLimiter(MockEnvironment environment) {
+        return new RateLimiter(environment, true, Duration.ofMinutes(10), 1000, registry, clock::get);
+    }
+}
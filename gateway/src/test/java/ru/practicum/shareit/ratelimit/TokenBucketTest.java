@@ -0,0 +1,67 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class TokenBucketTest {
+    private static final long INTERVAL = 100;
+    private static final long BURST = 3;
+    private static final long TOLERANCE = INTERVAL * BURST;
+
+    private final TokenBucket bucket = new TokenBucket();
+
+    @Test
+    void burstEdgeTest() {
+        long now = 1_000;
+        for (int i = 0; i < BURST; i++) {
+            assertThat(bucket.tryAcquire(now, INTERVAL, TOLERANCE), equalTo(0L));
+        }
+
+        assertThat(bucket.tryAcquire(now, INTERVAL, TOLERANCE), equalTo(INTERVAL));
+        assertThat(bucket.tryAcquire(now + INTERVAL - 1, INTERVAL, TOLERANCE), equalTo(1L));
+        assertThat(bucket.tryAcquire(now + INTERVAL, INTERVAL, TOLERANCE), equalTo(0L));
+        assertThat(bucket.tryAcquire(now + INTERVAL, INTERVAL, TOLERANCE), equalTo(INTERVAL));
+    }
+
+    @Test
+    void refillTest() {
+        long now = 1_000;
+        for (int i = 0; i < BURST; i++) {
+            bucket.tryAcquire(now, INTERVAL, TOLERANCE);
+        }
+
+        long later = now + 2 * INTERVAL;
+
+        assertThat(bucket.tryAcquire(later, INTERVAL, TOLERANCE), equalTo(0L));
+        assertThat(bucket.tryAcquire(later, INTERVAL, TOLERANCE), equalTo(0L));
+        assertThat(bucket.tryAcquire(later, INTERVAL, TOLERANCE), equalTo(INTERVAL));
+    }
+
+    @Test
+    void idleBucketIsFullOnlyUpToBurstTest() {
+        long now = 1_000;
+        bucket.tryAcquire(now, INTERVAL, TOLERANCE);
+
+        long later = now + 100 * INTERVAL;
+        for (int i = 0; i < BURST; i++) {
+            assertThat(bucket.tryAcquire(later, INTERVAL, TOLERANCE), equalTo(0L));
+        }
+
+        assertThat(bucket.tryAcquire(later, INTERVAL, TOLERANCE), equalTo(INTERVAL));
+    }
+
+    @Test
+    void rejectedRequestDoesNotTakeTokenTest() {
+        long now = 1_000;
+        for (int i = 0; i < BURST; i++) {
+            bucket.tryAcquire(now, INTERVAL, TOLERANCE);
+        }
+        for (int i = 0; i < 10; i++) {
+            bucket.tryAcquire(now, INTERVAL, TOLERANCE);
+        }
+
+        assertThat(bucket.tryAcquire(now + INTERVAL, INTERVAL, TOLERANCE), equalTo(0L));
+    }
+}
@@ -0,0 +1,123 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Нагрузка закрытого цикла: clients клиентов без пауз повторяют GET url в течение duration секунд.
+ * Печатает пропускную способность и p50/p99 успешных ответов, а также число ошибок.
+ * Запуск: java Bench.java url userId clients seconds label
+ */
+public class Bench {
+    private static final long WARMUP_NANOS = Duration.ofSeconds(5).toNanos();
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        String userId = args[1];
+        int clients = Integer.parseInt(args[2]);
+        long durationNanos = Duration.ofSeconds(Long.parseLong(args[3])).toNanos();
+        String label = args.length > 4 ? args[4] : "";
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newCachedThreadPool())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", userId)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        AtomicLong errors = new AtomicLong();
+        List<Samples> samples = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(clients);
+        long measureFrom = System.nanoTime() + WARMUP_NANOS;
+        long end = measureFrom + durationNanos;
+        ThreadFactory threads = clientThreads();
+        for (int i = 0; i < clients; i++) {
+            Samples own = new Samples();
+            samples.add(own);
+            threads.newThread(() -> {
+                try {
+                    long sent;
+                    while ((sent = System.nanoTime()) < end) {
+                        boolean ok;
+                        try {
+                            ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long received = System.nanoTime();
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        } else if (sent >= measureFrom && received <= end) {
+                            own.add(received - sent);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+
+        long[] all = samples.stream().flatMapToLong(Samples::stream).sorted().toArray();
+        double seconds = durationNanos / 1e9;
+        System.out.printf("%s clients=%d requests=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms errors=%d%n",
+                label, clients, all.length, all.length / seconds,
+                percentile(all, 0.50), percentile(all, 0.99), errors.get());
+        System.exit(0);
+    }
+
+    /**
+     * Задержки одного клиента в наносекундах
+     */
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int count;
+
+        void add(long value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+
+        LongStream stream() {
+            return Arrays.stream(values, 0, count);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Клиенты в виртуальных потоках, если JDK их поддерживает: сам генератор нагрузки не должен
+     * упираться в число потоков
+     */
+    private static ThreadFactory clientThreads() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) builder.getClass().getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return runnable -> {
+                Thread thread = new Thread(null, runnable, "bench-client", 256 * 1024);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
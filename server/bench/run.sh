@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Сравнение пропускной способности и p99 сервера с платформенными и виртуальными потоками Tomcat.
+# Нужна JDK 21+: без нее запуск с shareit.virtual-threads.enabled=true завершится ошибкой.
+# Параметры (переменные окружения): CLIENTS=1000 DURATION=30 PORT=19090 MODES="false true"
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+CLIENTS=${CLIENTS:-1000}
+DURATION=${DURATION:-30}
+PORT=${PORT:-19090}
+MODES=${MODES:-"false true"}
+BASE="http://localhost:$PORT"
+
+mvn -B -q -pl server -am package -DskipTests
+
+for mode in $MODES; do
+    if curl -s -o /dev/null "$BASE"; then
+        echo "Порт $PORT уже занят" >&2
+        exit 1
+    fi
+    java -jar server/target/shareit-server-0.0.1-SNAPSHOT.jar \
+        --spring.profiles.active=test \
+        --server.port="$PORT" \
+        --shareit.virtual-threads.enabled="$mode" \
+        "$@" > "server/target/bench-server-$mode.log" 2>&1 &
+    server=$!
+    trap 'kill $server 2>/dev/null || true' EXIT
+
+    until curl -sf "$BASE/actuator/health" > /dev/null; do
+        if ! kill -0 "$server" 2>/dev/null; then
+            echo "Сервер не запустился, см. server/target/bench-server-$mode.log" >&2
+            exit 1
+        fi
+        sleep 1
+    done
+
+    user=$(curl -sf -H 'Content-Type: application/json' \
+        -d "{\"name\":\"bench\",\"email\":\"bench-$mode@example.com\"}" "$BASE/users" \
+        | sed -E 's/.*"id":([0-9]+).*/\1/')
+    item=$(curl -sf -H 'Content-Type: application/json' -H "X-Sharer-User-Id: $user" \
+        -d '{"name":"bench","description":"bench","available":true}' "$BASE/items" \
+        | sed -E 's/.*"id":([0-9]+).*/\1/')
+
+    java -Dfile.encoding=UTF-8 server/bench/Bench.java "$BASE/items/$item" "$user" "$CLIENTS" "$DURATION" \
+        "virtual=$mode"
+
+    kill "$server"
+    wait "$server" 2>/dev/null || true
+    trap - EXIT
+done
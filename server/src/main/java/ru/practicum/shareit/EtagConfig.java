@@ -0,0 +1,37 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Строгий ETag по хэшу тела ответа для чтения вещей, запросов и пользователей.
+ * На запрос с совпадающим If-None-Match отвечаем 304 без тела. Фильтр буферизует ответ целиком,
+ * поэтому работает только для GET и HEAD и не трогает пакетную загрузку вещей.
+ */
+@Configuration
+public class EtagConfig {
+    private static final String ITEMS_BATCH = "/items/batch";
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ReadOnlyEtagFilter());
+        registration.setName("etagFilter");
+        registration.addUrlPatterns("/items/*", "/requests/*", "/users/*");
+        return registration;
+    }
+
+    static class ReadOnlyEtagFilter extends ShallowEtagHeaderFilter {
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            String method = request.getMethod();
+            return !(HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method))
+                    || ITEMS_BATCH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,6 +11,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
@@ -36,6 +39,12 @@ public class BookingController {
         return bookingService.approveBooking(idUser, idBooking, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResult> approveBookings(@RequestHeader(ID_SHARER) Long idUser,
+                                                       @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.approveBookings(idUser, decisions);
+    }
+
     @GetMapping("/{idBooking}")
     public BookingDto getBookingById(@RequestHeader(ID_SHARER) Long idUser,
                                      @PathVariable Long idBooking) {
@@ -43,18 +52,38 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookings(@RequestHeader(ID_SHARER) Long idUser,
-                                           @RequestParam(required = false, defaultValue = "ALL") String state,
-                                           @RequestParam(required = false, defaultValue = "0") Integer from,
-                                           @RequestParam(required = false, defaultValue = "10") Integer size) {
-        return bookingService.getAllBookings(idUser, state, from, size);
+    public ResponseEntity<List<BookingDto>> getAllBookings(@RequestHeader(ID_SHARER) Long idUser,
+                                                           @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                           @RequestParam(required = false, defaultValue = "0") Integer from,
+                                                           @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String cursor) {
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllBookings(idUser, state, from, size)
+                : bookingService.getAllBookingsByCursor(idUser, state, cursor, size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllOwnerBookings(@RequestHeader(ID_SHARER) Long idUser,
-                                                @RequestParam(required = false, defaultValue = "ALL") String state,
-                                                @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                @RequestParam(required = false, defaultValue = "10") Integer size) {
-        return bookingService.getAllOwnerBookings(idUser, state, from, size);
+    public ResponseEntity<List<BookingDto>> getAllOwnerBookings(@RequestHeader(ID_SHARER) Long idUser,
+                                                                @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                                @RequestParam(required = false, defaultValue = "0") Integer from,
+                                                                @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                                @RequestParam(required = false) String cursor) {
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllOwnerBookings(idUser, state, from, size)
+                : bookingService.getAllOwnerBookingsByCursor(idUser, state, cursor, size);
+        return withNextCursor(bookings, size);
+    }
+
+    /**
+     * Полная страница содержит курсор для запроса следующей
+     */
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        return ResponseEntity.ok()
+                .header(BookingCursor.NEXT_CURSOR, BookingCursor.encode(bookings.get(bookings.size() - 1)))
+                .body(bookings);
     }
 }
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.RequestFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Курсор постраничного вывода бронирований: (start, id) последнего бронирования страницы.
+ * Клиенту передается в заголовке ответа в виде непрозрачной строки.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingCursor {
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final Long id;
+
+    public static String encode(BookingDto booking) {
+        // в БД время хранится с точностью до микросекунд
+        LocalDateTime start = booking.getStart().truncatedTo(ChronoUnit.MICROS);
+        String value = start + SEPARATOR + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RequestFailedException("Некорректный курсор: " + cursor);
+        }
+    }
+}
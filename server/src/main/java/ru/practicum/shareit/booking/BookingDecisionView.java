@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Проекция бронирования для пакетного подтверждения: статус и владелец вещи
+ */
+public interface BookingDecisionView {
+
+    Long getId();
+
+    Status getStatus();
+
+    Long getItemId();
+
+    Long getItemOwner();
+}
@@ -0,0 +1,319 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.RequestFailedException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс занятости вещей: периоды подтвержденных и ожидающих бронирований по каждой вещи.
+ * Периоды вещи отсортированы по началу и хранятся вместе с префиксным максимумом окончаний,
+ * поэтому пересечение с запрошенным периодом проверяется одним бинарным поиском.
+ * Вещи загружаются лениво: все недостающие вещи одной проверки читаются из БД одним запросом.
+ * Изменения вещи выполняются под блокировкой ее полосы: бронирование до коммита хранится
+ * как резерв и попадает в периоды вещи только после коммита, при откате резерв снимается.
+ */
+@Component
+public class BookingIntervalIndex {
+    private static final List<Status> ACTIVE = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemIntervals> cache;
+    private final ReentrantLock[] locks;
+    private final AtomicLongArray versions;
+    private final Map<Long, List<Interval>> reserved = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.max-size:100000}") long maxSize,
+                                @Value("${shareit.booking.interval-index.ttl:10m}") Duration ttl,
+                                @Value("${shareit.booking.interval-index.lock-stripes:64}") int stripes,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.versions = new AtomicLongArray(stripes);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "booking-intervals");
+    }
+
+    /**
+     * Вещи из списка, у которых есть подтвержденное или ожидающее бронирование, пересекающее период [start, end)
+     */
+    public Set<Long> findBusy(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        return intervals(itemIds).entrySet().stream()
+                .filter(entry -> entry.getValue().overlaps(start, end))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Зарезервировать период бронирования вещи, если он не пересекается с другими бронированиями.
+     * Внутри транзакции резерв становится периодом вещи после коммита и снимается при откате.
+     */
+    public void reserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        Interval interval = new Interval(bookingId, start, end);
+        ReentrantLock lock = lock(itemId);
+        lock.lock();
+        try {
+            // своя транзакция видит еще не закоммиченное бронирование: оно попадет в индекс после коммита
+            ItemIntervals intervals = cache.get(itemId, id -> load(Set.of(id)).get(id).without(bookingId));
+            boolean reservedOverlaps = reserved.getOrDefault(itemId, List.of()).stream()
+                    .anyMatch(other -> other.overlaps(start, end));
+            if (intervals.overlaps(start, end) || reservedOverlaps) {
+                throw new RequestFailedException("Вещь уже забронирована на выбранные даты");
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                apply(itemId, current -> current.with(interval));
+                return;
+            }
+            reserved.computeIfAbsent(itemId, id -> new ArrayList<>()).add(interval);
+        } finally {
+            lock.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.lock();
+                try {
+                    reserved.computeIfPresent(itemId, (id, list) -> {
+                        list.remove(interval);
+                        return list.isEmpty() ? null : list;
+                    });
+                    if (status == STATUS_COMMITTED) {
+                        apply(itemId, current -> current.with(interval));
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Освободить период отклоненного бронирования. Внутри транзакции изменение применяется после коммита.
+     */
+    public void release(Long itemId, Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyLocked(itemId, current -> current.without(bookingId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyLocked(itemId, current -> current.without(bookingId));
+            }
+        });
+    }
+
+    /**
+     * Забыть периоды вещей, бронирования которых БД удалила каскадом мимо индекса: вещи перечитаются из БД
+     * при следующей проверке. Внутри транзакции изменение применяется после коммита.
+     */
+    public void evict(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemIds.forEach(this::evictLocked);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemIds.forEach(BookingIntervalIndex.this::evictLocked);
+            }
+        });
+    }
+
+    /**
+     * Периоды вещей из кэша. Недостающие вещи читаются одним запросом и попадают в кэш,
+     * только если за время чтения по их полосе не было изменений: иначе прочитанное могло устареть.
+     */
+    private Map<Long, ItemIntervals> intervals(Collection<Long> itemIds) {
+        Map<Long, ItemIntervals> result = new HashMap<>(cache.getAllPresent(itemIds));
+        Set<Long> missing = itemIds.stream()
+                .filter(id -> !result.containsKey(id))
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<Long, Long> versionsBefore = missing.stream()
+                .collect(Collectors.toMap(id -> id, id -> versions.get(stripe(id))));
+        Map<Long, ItemIntervals> loaded = load(missing);
+        loaded.forEach((id, intervals) -> {
+            ReentrantLock lock = lock(id);
+            lock.lock();
+            try {
+                if (versions.get(stripe(id)) == versionsBefore.get(id)) {
+                    result.put(id, cache.asMap().computeIfAbsent(id, key -> intervals));
+                } else {
+                    result.put(id, intervals);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+        return result;
+    }
+
+    private Map<Long, ItemIntervals> load(Set<Long> itemIds) {
+        Map<Long, List<BookingIntervalView>> intervals = bookingRepository
+                .findIntervalsByItemIds(itemIds, ACTIVE, LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(BookingIntervalView::getItemId));
+        Map<Long, ItemIntervals> result = new HashMap<>();
+        for (Long id : itemIds) {
+            result.put(id, ItemIntervals.of(intervals.getOrDefault(id, List.of()).stream()
+                    .map(view -> new Interval(view.getId(), view.getStart(), view.getEnd()))
+                    .collect(Collectors.toList())));
+        }
+        return result;
+    }
+
+    private void applyLocked(Long itemId, UnaryOperator<ItemIntervals> change) {
+        ReentrantLock lock = lock(itemId);
+        lock.lock();
+        try {
+            apply(itemId, change);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Смена версии полосы не дает закэшировать периоды, прочитанные до удаления
+     */
+    private void evictLocked(Long itemId) {
+        ReentrantLock lock = lock(itemId);
+        lock.lock();
+        try {
+            cache.invalidate(itemId);
+            versions.incrementAndGet(stripe(itemId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Изменение применяется только к загруженной вещи: незагруженная вещь прочитается из БД уже с изменением
+     */
+    private void apply(Long itemId, UnaryOperator<ItemIntervals> change) {
+        cache.asMap().computeIfPresent(itemId, (id, current) -> change.apply(current));
+        versions.incrementAndGet(stripe(itemId));
+    }
+
+    private ReentrantLock lock(Long itemId) {
+        return locks[stripe(itemId)];
+    }
+
+    private int stripe(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), locks.length);
+    }
+
+    /**
+     * Период одного бронирования
+     */
+    private static final class Interval {
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && end.isAfter(otherStart);
+        }
+    }
+
+    /**
+     * Неизменяемые периоды бронирований одной вещи. Прошедшие периоды не загружаются.
+     */
+    private static final class ItemIntervals {
+        private final Interval[] intervals;
+        private final LocalDateTime[] maxEnds;
+
+        private ItemIntervals(Interval[] intervals) {
+            this.intervals = intervals;
+            this.maxEnds = new LocalDateTime[intervals.length];
+            for (int i = 0; i < intervals.length; i++) {
+                LocalDateTime end = intervals[i].end;
+                maxEnds[i] = i > 0 && maxEnds[i - 1].isAfter(end) ? maxEnds[i - 1] : end;
+            }
+        }
+
+        static ItemIntervals of(List<Interval> intervals) {
+            return new ItemIntervals(intervals.stream()
+                    .sorted((first, second) -> first.start.compareTo(second.start))
+                    .toArray(Interval[]::new));
+        }
+
+        /**
+         * Среди периодов, начавшихся до end, ищется самое позднее окончание: пересечение есть, если оно позже start
+         */
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            int count = countStartedBefore(end);
+            return count > 0 && maxEnds[count - 1].isAfter(start);
+        }
+
+        ItemIntervals with(Interval interval) {
+            List<Interval> result = new ArrayList<>(intervals.length + 1);
+            for (Interval current : intervals) {
+                if (current.bookingId.equals(interval.bookingId)) {
+                    return this;
+                }
+                result.add(current);
+            }
+            result.add(interval);
+            return of(result);
+        }
+
+        ItemIntervals without(Long bookingId) {
+            List<Interval> result = new ArrayList<>(intervals.length);
+            for (Interval current : intervals) {
+                if (!current.bookingId.equals(bookingId)) {
+                    result.add(current);
+                }
+            }
+            return result.size() == intervals.length ? this : of(result);
+        }
+
+        private int countStartedBefore(LocalDateTime end) {
+            int low = 0;
+            int high = intervals.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (intervals[middle].start.isBefore(end)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -2,45 +2,173 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query(" select b from Booking b join User as u on b.booker = u.id " +
-            "where u.id = ?1 order by b.start desc")
+            "where u.id = ?1 order by b.start desc, b.id desc")
     List<Booking> getAllBookingsById(Long idUser, Pageable pageable);
 
-    List<Booking> findDByBookerAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
-                                                                         LocalDateTime dateTime,
-                                                                         LocalDateTime dateTime2,
-                                                                         Pageable pageable);
-
-    List<Booking> findDByBookerAndStartAfterOrderByStartDesc(User booker, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findDByBookerAndEndBeforeOrderByStartDesc(User booker, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findDByBookerAndStatusOrderByStartDesc(User booker, Status status, Pageable pageable);
-
-    List<Booking> findDByItemInOrderByStartDesc(List<Item> items, Pageable pageable);
-
-    List<Booking> findDByItemInAndStartBeforeAndEndAfterOrderByStartDesc(List<Item> items,
-                                                                         LocalDateTime dateTime,
-                                                                         LocalDateTime dateTime2,
-                                                                         Pageable pageable);
-
-    List<Booking> findDByItemInAndStartAfterOrderByStartDesc(List<Item> items, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findDByItemInAndEndBeforeOrderByStartDesc(List<Item> items, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findDByItemInAndStatusOrderByStartDesc(List<Item> items, Status status, Pageable pageable);
-
-    List<Booking> findDByItemAndStatusAndStartBeforeOrderByEndDesc(Item item, Status status, LocalDateTime dateTime);
-
-    List<Booking> findDByItemAndStatusAndStartAfterOrderByStartAsc(Item item, Status status, LocalDateTime dateTime);
+    List<Booking> findDByBookerAndStartBeforeAndEndAfterOrderByStartDescIdDesc(User booker,
+                                                                               LocalDateTime dateTime,
+                                                                               LocalDateTime dateTime2,
+                                                                               Pageable pageable);
+
+    List<Booking> findDByBookerAndStartAfterOrderByStartDescIdDesc(User booker, LocalDateTime dateTime, Pageable pageable);
+
+    List<Booking> findDByBookerAndEndBeforeOrderByStartDescIdDesc(User booker, LocalDateTime dateTime, Pageable pageable);
+
+    List<Booking> findDByBookerAndStatusOrderByStartDescIdDesc(User booker, Status status, Pageable pageable);
+
+    @Query("select b from Booking as b where b.booker.id = ?1 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByBookerBeforeCursor(Long bookerId, LocalDateTime cursorStart, Long cursorId,
+                                           Pageable pageable);
+
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.start < ?2 and b.end > ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or b.id < ?4) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findCurrentByBookerBeforeCursor(Long bookerId, LocalDateTime dateTime,
+                                                  LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.start > ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or b.id < ?4) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findFutureByBookerBeforeCursor(Long bookerId, LocalDateTime dateTime,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.end < ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or b.id < ?4) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findPastByBookerBeforeCursor(Long bookerId, LocalDateTime dateTime,
+                                               LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.status = ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or b.id < ?4) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByBookerAndStatusBeforeCursor(Long bookerId, Status status,
+                                                    LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 order by b.start desc, b.id desc")
+    List<Booking> findDByItemOwnerOrderByStartDescIdDesc(Long ownerId, Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.start < ?2 and b.end > ?3 order by b.start desc, b.id desc")
+    List<Booking> findDByItemOwnerAndStartBeforeAndEndAfterOrderByStartDescIdDesc(Long ownerId,
+                                                                                  LocalDateTime dateTime,
+                                                                                  LocalDateTime dateTime2,
+                                                                                  Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.start > ?2 order by b.start desc, b.id desc")
+    List<Booking> findDByItemOwnerAndStartAfterOrderByStartDescIdDesc(Long ownerId, LocalDateTime dateTime, Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.end < ?2 order by b.start desc, b.id desc")
+    List<Booking> findDByItemOwnerAndEndBeforeOrderByStartDescIdDesc(Long ownerId, LocalDateTime dateTime, Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.status = ?2 order by b.start desc, b.id desc")
+    List<Booking> findDByItemOwnerAndStatusOrderByStartDescIdDesc(Long ownerId, Status status, Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByOwnerBeforeCursor(Long ownerId, LocalDateTime cursorStart, Long cursorId,
+                                          Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.start < ?2 and b.end > ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or b.id < ?4) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findCurrentByOwnerBeforeCursor(Long ownerId, LocalDateTime dateTime,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.start > ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or b.id < ?4) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findFutureByOwnerBeforeCursor(Long ownerId, LocalDateTime dateTime,
+                                                LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.end < ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or b.id < ?4) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findPastByOwnerBeforeCursor(Long ownerId, LocalDateTime dateTime,
+                                              LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query("select b from Booking as b join b.item as i where i.owner = ?1 " +
+            "and b.status = ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or b.id < ?4) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByOwnerAndStatusBeforeCursor(Long ownerId, Status status,
+                                                   LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(value = "select l.id as lastId, l.booker_id as lastBookerId, " +
+            "n.id as nextId, n.booker_id as nextBookerId " +
+            "from (select 1 as one) as d " +
+            "left join (select bk.id, bk.booker_id from BOOKINGS as bk " +
+            "where bk.item_id = ?1 and bk.status = ?2 and bk.start_date < ?3 " +
+            "order by bk.end_date desc limit 1) as l on true " +
+            "left join (select bk.id, bk.booker_id from BOOKINGS as bk " +
+            "where bk.item_id = ?1 and bk.status = ?2 and bk.start_date > ?3 " +
+            "order by bk.start_date asc limit 1) as n on true", nativeQuery = true)
+    LastNextBookingView findLastAndNextBooking(Long itemId, String status, LocalDateTime dateTime);
+
+    @Query(value = "select b.item_id as itemId, b.id as id, b.booker_id as bookerId from (" +
+            "select bk.id, bk.item_id, bk.booker_id, " +
+            "row_number() over (partition by bk.item_id order by bk.end_date desc) as rn " +
+            "from BOOKINGS as bk " +
+            "where bk.item_id in ?1 and bk.status = ?2 and bk.start_date < ?3) as b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastBookingsByItemIds(Collection<Long> itemIds, String status, LocalDateTime dateTime);
+
+    @Query(value = "select b.item_id as itemId, b.id as id, b.booker_id as bookerId from (" +
+            "select bk.id, bk.item_id, bk.booker_id, " +
+            "row_number() over (partition by bk.item_id order by bk.start_date asc) as rn " +
+            "from BOOKINGS as bk " +
+            "where bk.item_id in ?1 and bk.status = ?2 and bk.start_date > ?3) as b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findNextBookingsByItemIds(Collection<Long> itemIds, String status, LocalDateTime dateTime);
+
+    /**
+     * Сменить статус бронирования, если пользователь владеет вещью и статус еще равен ожидаемому
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking as b set b.status = ?3 where b.id = ?1 and b.status = ?4 " +
+            "and b.item.id in (select i.id from Item as i where i.owner = ?2)")
+    int updateStatusByOwner(Long id, Long ownerId, Status status, Status expectedStatus);
+
+    @Query("select b.id as id, b.start as start, b.end as end, b.status as status, " +
+            "i.id as itemId, i.name as itemName, i.description as itemDescription, " +
+            "i.available as itemAvailable, i.owner as itemOwner, i.requestId as itemRequestId, " +
+            "u.id as bookerId, u.name as bookerName, u.email as bookerEmail " +
+            "from Booking as b join b.item as i join b.booker as u where b.id = ?1")
+    BookingDetailsView findDetailsById(Long id);
+
+    /**
+     * Статусы бронирований и владельцы их вещей для проверки пакета решений одним запросом
+     */
+    @Query("select b.id as id, b.status as status, i.id as itemId, i.owner as itemOwner " +
+            "from Booking as b join b.item as i where b.id in ?1")
+    List<BookingDecisionView> findDecisionsByIds(Collection<Long> ids);
+
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end from Booking as b " +
+            "where b.item.id in ?1 and b.status in ?2 and b.end > ?3")
+    List<BookingIntervalView> findIntervalsByItemIds(Collection<Long> itemIds, Collection<Status> statuses,
+                                                     LocalDateTime dateTime);
+
+    @Query("select distinct b.item.id from Booking as b where b.booker.id = ?1 and b.end > ?2")
+    List<Long> findItemIdsByBookerId(Long bookerId, LocalDateTime dateTime);
 
     @Query("select b from Booking as b join User as u on b.booker = u.id " +
             "where b.item = ?1 and b.status = ?2 and u.id = ?3 and b.end < ?4")
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
@@ -11,10 +13,16 @@ public interface BookingService {
 
     BookingDto approveBooking(Long idUser, Long idBooking, Boolean approved);
 
+    List<BookingDecisionResult> approveBookings(Long idUser, List<BookingDecisionDto> decisions);
+
     BookingDto getBookingById(Long idUser, Long idBooking);
 
     List<BookingDto> getAllBookings(Long idUser, String text, Integer from, Integer size);
 
     List<BookingDto> getAllOwnerBookings(Long idUser, String text, Integer from, Integer size);
 
+    List<BookingDto> getAllBookingsByCursor(Long idUser, String text, String cursor, Integer size);
+
+    List<BookingDto> getAllOwnerBookingsByCursor(Long idUser, String text, String cursor, Integer size);
+
 }
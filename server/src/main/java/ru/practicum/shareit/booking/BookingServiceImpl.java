@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.MapperBooking;
@@ -13,10 +15,19 @@ import ru.practicum.shareit.exception.UnsupportedStatus;
 import ru.practicum.shareit.item.ItemRepositoryJpa;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepositoryJpa;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserMapper;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.dto.MapperBooking.toBooking;
@@ -27,45 +38,85 @@ import static ru.practicum.shareit.booking.dto.MapperBooking.toBookingDto;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     public final BookingRepository bookingRepository;
-    public final UserRepositoryJpa userRepositoryJpa;
+    public final UserService userService;
     public final ItemRepositoryJpa itemRepositoryJpa;
+    public final BookingIntervalIndex bookingIntervalIndex;
+    public final ItemLocks itemLocks;
 
     /**
-     * Создание бронирования
+     * Создание бронирования. Бронирования одной вещи создаются по очереди под блокировкой вещи,
+     * пересечение с другими бронированиями вещи проверяется по индексу занятости.
      */
     @Transactional
     public BookingDto createBooking(Long idUser, BookingShortDto bookingDto) {
         checkBookingDate(bookingDto);
         User user = checkUser(idUser);
+        itemLocks.lockUntilCompletion(bookingDto.getItemId());
         Item item = itemRepositoryJpa.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new MissingIdException("При запросе вещи произошла ошибка"));
         checkOwner(idUser, item);
         checkAvailableItem(item);
-        Booking booking = toBooking(bookingDto, user, item, Status.WAITING);
-        return toBookingDto(bookingRepository.save(booking));
+        Booking booking = bookingRepository.save(toBooking(bookingDto, user, item, Status.WAITING));
+        bookingIntervalIndex.reserve(item.getId(), booking.getId(), booking.getStart(), booking.getEnd());
+        return toBookingDto(booking);
     }
 
     /**
-     * Подтверждение бронирования
+     * Подтверждение бронирования одним условным обновлением: статус меняется, только если
+     * пользователь владеет вещью и бронирование еще ожидает решения. Из двух одновременных
+     * подтверждений обновит строку только одно.
      */
     @Transactional
     public BookingDto approveBooking(Long idUser, Long idBooking, Boolean approved) {
-        Booking booking = bookingRepository.findById(idBooking)
-                .orElseThrow(() -> new MissingIdException("При запросе вещи произошла ошибка"));
-        if (booking.getStatus().equals(Status.WAITING)) {
-            if (booking.getItem().getOwner().equals(idUser)) {
-                if (approved) {
-                    booking.setStatus(Status.APPROVED);
-                } else {
-                    booking.setStatus(Status.REJECTED);
-                }
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (bookingRepository.updateStatusByOwner(idBooking, idUser, status, Status.WAITING) == 0) {
+            throw approveFailure(idUser, idBooking);
+        }
+        BookingDetailsView booking = bookingRepository.findDetailsById(idBooking);
+        if (!approved) {
+            bookingIntervalIndex.release(booking.getItemId(), booking.getId());
+        }
+        return toBookingDto(booking);
+    }
+
+    /**
+     * Пакетное подтверждение бронирований владельцем. Права и статусы всех бронирований пакета
+     * читаются одним запросом, статусы меняются одним условным обновлением на каждый итоговый статус:
+     * как и при одиночном подтверждении, обновление проверяет владельца и ожидающий статус.
+     * Ошибка по одному бронированию не отменяет остальные решения пакета. Размер пакета проверяет шлюз.
+     */
+    @Transactional
+    public List<BookingDecisionResult> approveBookings(Long idUser, List<BookingDecisionDto> decisions) {
+        Set<Long> ids = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, BookingDecisionView> bookings = ids.isEmpty() ? Map.of() : bookingRepository.findDecisionsByIds(ids)
+                .stream()
+                .collect(Collectors.toMap(BookingDecisionView::getId, Function.identity()));
+        BookingDecisionResult[] results = new BookingDecisionResult[decisions.size()];
+        Map<Status, Map<Long, Integer>> accepted = new EnumMap<>(Status.class);
+        Set<Long> decided = new HashSet<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            String error = checkDecision(idUser, decision, bookings.get(decision.getBookingId()), decided);
+            if (error != null) {
+                results[i] = BookingDecisionResult.failed(decision.getBookingId(), error);
             } else {
-                throw new MissingIdException("ID пользователя не совпадает с ID владельца вещи");
+                Status status = decision.getApproved() ? Status.APPROVED : Status.REJECTED;
+                accepted.computeIfAbsent(status, key -> new HashMap<>()).put(decision.getBookingId(), i);
             }
-        } else {
-            throw new RequestFailedException("Статус бронирования уже был утвержден.");
         }
-        return toBookingDto(bookingRepository.save(booking));
+        accepted.forEach((status, indexes) -> {
+            Set<Long> updated = updateStatuses(idUser, indexes.keySet(), status);
+            indexes.forEach((id, index) -> results[index] = updated.contains(id)
+                    ? BookingDecisionResult.applied(id, status)
+                    : BookingDecisionResult.failed(id, "Статус бронирования уже был утвержден."));
+            if (status == Status.REJECTED) {
+                updated.forEach(id -> bookingIntervalIndex.release(bookings.get(id).getItemId(), id));
+            }
+        });
+        return Arrays.asList(results);
     }
 
     /**
@@ -95,19 +146,19 @@ public class BookingServiceImpl implements BookingService {
                 booking = bookingRepository.getAllBookingsById(idUser, page);
                 break;
             case CURRENT:
-                booking = bookingRepository.findDByBookerAndStartBeforeAndEndAfterOrderByStartDesc(user, dateTime, dateTime, page);
+                booking = bookingRepository.findDByBookerAndStartBeforeAndEndAfterOrderByStartDescIdDesc(user, dateTime, dateTime, page);
                 break;
             case FUTURE:
-                booking = bookingRepository.findDByBookerAndStartAfterOrderByStartDesc(user, dateTime, page);
+                booking = bookingRepository.findDByBookerAndStartAfterOrderByStartDescIdDesc(user, dateTime, page);
                 break;
             case PAST:
-                booking = bookingRepository.findDByBookerAndEndBeforeOrderByStartDesc(user, dateTime, page);
+                booking = bookingRepository.findDByBookerAndEndBeforeOrderByStartDescIdDesc(user, dateTime, page);
                 break;
             case WAITING:
-                booking = bookingRepository.findDByBookerAndStatusOrderByStartDesc(user, Status.WAITING, page);
+                booking = bookingRepository.findDByBookerAndStatusOrderByStartDescIdDesc(user, Status.WAITING, page);
                 break;
             case REJECTED:
-                booking = bookingRepository.findDByBookerAndStatusOrderByStartDesc(user, Status.REJECTED, page);
+                booking = bookingRepository.findDByBookerAndStatusOrderByStartDescIdDesc(user, Status.REJECTED, page);
                 break;
             default:
                 throw new RequestFailedException("Статус указан некорректно");
@@ -127,36 +178,165 @@ public class BookingServiceImpl implements BookingService {
         checkUser(idUser);
         int from = start / size;
         PageRequest page = PageRequest.of(from, size);
-        List<Item> items = itemRepositoryJpa.findByOwner(idUser);
-        if (items.size() > 0) {
-            switch (state) {
-                case ALL:
-                    booking = bookingRepository.findDByItemInOrderByStartDesc(items, page);
-                    break;
-                case CURRENT:
-                    booking = bookingRepository.findDByItemInAndStartBeforeAndEndAfterOrderByStartDesc(items, dateTime, dateTime, page);
-                    break;
-                case FUTURE:
-                    booking = bookingRepository.findDByItemInAndStartAfterOrderByStartDesc(items, dateTime, page);
-                    break;
-                case PAST:
-                    booking = bookingRepository.findDByItemInAndEndBeforeOrderByStartDesc(items, dateTime, page);
-                    break;
-                case WAITING:
-                    booking = bookingRepository.findDByItemInAndStatusOrderByStartDesc(items, Status.WAITING, page);
-                    break;
-                case REJECTED:
-                    booking = bookingRepository.findDByItemInAndStatusOrderByStartDesc(items, Status.REJECTED, page);
-                    break;
-                default:
-                    throw new UnsupportedStatus("Unknown state: " + state);
-            }
-            return booking.stream()
-                    .map(MapperBooking::toBookingDto)
-                    .collect(Collectors.toList());
-        } else throw new RequestFailedException("У пользователя нет ни одной вещи!");
+        checkOwnerHasItems(idUser);
+        switch (state) {
+            case ALL:
+                booking = bookingRepository.findDByItemOwnerOrderByStartDescIdDesc(idUser, page);
+                break;
+            case CURRENT:
+                booking = bookingRepository.findDByItemOwnerAndStartBeforeAndEndAfterOrderByStartDescIdDesc(idUser, dateTime, dateTime, page);
+                break;
+            case FUTURE:
+                booking = bookingRepository.findDByItemOwnerAndStartAfterOrderByStartDescIdDesc(idUser, dateTime, page);
+                break;
+            case PAST:
+                booking = bookingRepository.findDByItemOwnerAndEndBeforeOrderByStartDescIdDesc(idUser, dateTime, page);
+                break;
+            case WAITING:
+                booking = bookingRepository.findDByItemOwnerAndStatusOrderByStartDescIdDesc(idUser, Status.WAITING, page);
+                break;
+            case REJECTED:
+                booking = bookingRepository.findDByItemOwnerAndStatusOrderByStartDescIdDesc(idUser, Status.REJECTED, page);
+                break;
+            default:
+                throw new UnsupportedStatus("Unknown state: " + state);
+        }
+        return booking.stream()
+                .map(MapperBooking::toBookingDto)
+                .collect(Collectors.toList());
     }
 
+    /**
+     * Получить страницу бронирований текущего пользователя, следующую за курсором
+     */
+    public List<BookingDto> getAllBookingsByCursor(Long idUser, String text, String cursor, Integer size) {
+        State state = State.getStateFromText(text);
+        BookingCursor after = BookingCursor.decode(cursor);
+        LocalDateTime dateTime = LocalDateTime.now();
+        List<Booking> booking;
+        checkUser(idUser);
+        PageRequest page = PageRequest.of(0, size);
+        switch (state) {
+            case ALL:
+                booking = bookingRepository.findByBookerBeforeCursor(idUser, after.getStart(), after.getId(), page);
+                break;
+            case CURRENT:
+                booking = bookingRepository.findCurrentByBookerBeforeCursor(
+                        idUser, dateTime, after.getStart(), after.getId(), page);
+                break;
+            case FUTURE:
+                booking = bookingRepository.findFutureByBookerBeforeCursor(
+                        idUser, dateTime, after.getStart(), after.getId(), page);
+                break;
+            case PAST:
+                booking = bookingRepository.findPastByBookerBeforeCursor(
+                        idUser, dateTime, after.getStart(), after.getId(), page);
+                break;
+            case WAITING:
+                booking = bookingRepository.findByBookerAndStatusBeforeCursor(
+                        idUser, Status.WAITING, after.getStart(), after.getId(), page);
+                break;
+            case REJECTED:
+                booking = bookingRepository.findByBookerAndStatusBeforeCursor(
+                        idUser, Status.REJECTED, after.getStart(), after.getId(), page);
+                break;
+            default:
+                throw new RequestFailedException("Статус указан некорректно");
+        }
+        return booking.stream()
+                .map(MapperBooking::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Получить страницу бронирований для вещей пользователя, следующую за курсором
+     */
+    public List<BookingDto> getAllOwnerBookingsByCursor(Long idUser, String text, String cursor, Integer size) {
+        State state = State.getStateFromText(text);
+        BookingCursor after = BookingCursor.decode(cursor);
+        LocalDateTime dateTime = LocalDateTime.now();
+        List<Booking> booking;
+        checkUser(idUser);
+        checkOwnerHasItems(idUser);
+        PageRequest page = PageRequest.of(0, size);
+        switch (state) {
+            case ALL:
+                booking = bookingRepository.findByOwnerBeforeCursor(idUser, after.getStart(), after.getId(), page);
+                break;
+            case CURRENT:
+                booking = bookingRepository.findCurrentByOwnerBeforeCursor(
+                        idUser, dateTime, after.getStart(), after.getId(), page);
+                break;
+            case FUTURE:
+                booking = bookingRepository.findFutureByOwnerBeforeCursor(
+                        idUser, dateTime, after.getStart(), after.getId(), page);
+                break;
+            case PAST:
+                booking = bookingRepository.findPastByOwnerBeforeCursor(
+                        idUser, dateTime, after.getStart(), after.getId(), page);
+                break;
+            case WAITING:
+                booking = bookingRepository.findByOwnerAndStatusBeforeCursor(
+                        idUser, Status.WAITING, after.getStart(), after.getId(), page);
+                break;
+            case REJECTED:
+                booking = bookingRepository.findByOwnerAndStatusBeforeCursor(
+                        idUser, Status.REJECTED, after.getStart(), after.getId(), page);
+                break;
+            default:
+                throw new UnsupportedStatus("Unknown state: " + state);
+        }
+        return booking.stream()
+                .map(MapperBooking::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+
+    /**
+     * Причина, по которой условное обновление не изменило бронирование.
+     * Чтение выполняется только при отказе, поэтому успешное подтверждение обходится без него.
+     */
+    private RuntimeException approveFailure(Long idUser, Long idBooking) {
+        Booking booking = bookingRepository.findById(idBooking)
+                .orElseThrow(() -> new MissingIdException("При запросе вещи произошла ошибка"));
+        if (booking.getStatus().equals(Status.WAITING) && !booking.getItem().getOwner().equals(idUser)) {
+            return new MissingIdException("ID пользователя не совпадает с ID владельца вещи");
+        }
+        return new RequestFailedException("Статус бронирования уже был утвержден.");
+    }
+
+    /**
+     * Причина отказа по решению пакета или null, если решение можно применить
+     */
+    private String checkDecision(Long idUser, BookingDecisionDto decision, BookingDecisionView booking,
+                                 Set<Long> decided) {
+        if (decision.getBookingId() == null || decision.getApproved() == null) {
+            return "В решении не указано бронирование или статус";
+        }
+        if (!decided.add(decision.getBookingId())) {
+            return "Решение по бронированию уже указано в пакете";
+        }
+        if (booking == null) {
+            return "При запросе вещи произошла ошибка";
+        }
+        if (!booking.getStatus().equals(Status.WAITING)) {
+            return "Статус бронирования уже был утвержден.";
+        }
+        if (!booking.getItemOwner().equals(idUser)) {
+            return "ID пользователя не совпадает с ID владельца вещи";
+        }
+        return null;
+    }
+
+    /**
+     * Обновить статус ожидающих бронирований и вернуть обновленные. Каждое бронирование обновляется
+     * своим условным запросом: решение, которое успел применить параллельный запрос, не считается своим.
+     */
+    private Set<Long> updateStatuses(Long idUser, Set<Long> ids, Status status) {
+        return ids.stream()
+                .filter(id -> bookingRepository.updateStatusByOwner(id, idUser, status, Status.WAITING) == 1)
+                .collect(Collectors.toSet());
+    }
 
     /**
      * Проверка доступности вещи для бронирования
@@ -182,10 +362,20 @@ public class BookingServiceImpl implements BookingService {
      * Запрос пользователя из БД и заодно проверка, что пользователь существует.
      */
     private User checkUser(Long idUser) {
-        return userRepositoryJpa.findById(idUser)
+        return userService.findUserById(idUser)
+                .map(UserMapper::toUser)
                 .orElseThrow(() -> new MissingIdException("При запросе вещи произошла ошибка"));
     }
 
+    /**
+     * Проверка, что у пользователя есть хотя бы одна вещь.
+     */
+    private void checkOwnerHasItems(Long idUser) {
+        if (!itemRepositoryJpa.existsByOwner(idUser)) {
+            throw new RequestFailedException("У пользователя нет ни одной вещи!");
+        }
+    }
+
     /**
      * Проверка, что пользователь является владельцем вещи.
      */
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Проекция бронирования вещи: только идентификаторы, без загрузки сущностей
+ */
+public interface ItemBookingView {
+
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки вещей: бронирования одной вещи создаются по очереди,
+ * а создание бронирований разных вещей ждет, только если вещи попали в одну полосу.
+ * Подтверждение блокировку не берет: его защищает условное обновление статуса.
+ * Блокировки действуют в пределах одного экземпляра сервера.
+ */
+@Component
+public class ItemLocks {
+    private final ReentrantLock[] locks;
+    private final long timeoutNanos;
+
+    public ItemLocks(@Value("${shareit.booking.lock.stripes:1024}") int stripes,
+                     @Value("${shareit.booking.lock.timeout:5s}") Duration timeout) {
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Заблокировать вещь до завершения текущей транзакции: следующая операция с вещью
+     * начнется после коммита и увидит его результат
+     */
+    public void lockUntilCompletion(Long itemId) {
+        ReentrantLock lock = get(itemId);
+        try {
+            if (!lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new CannotAcquireLockException("Вещь " + itemId + " занята другой операцией, повторите запрос");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Ожидание блокировки вещи " + itemId + " прервано", e);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            throw new IllegalStateException("Блокировка вещи до завершения транзакции вызвана вне транзакции");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock get(Long itemId) {
+        return locks[Math.floorMod(Long.hashCode(itemId), locks.length)];
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Проекция последнего и следующего бронирования вещи одной строкой
+ */
+public interface LastNextBookingView {
+
+    Long getLastId();
+
+    Long getLastBookerId();
+
+    Long getNextId();
+
+    Long getNextBookerId();
+}
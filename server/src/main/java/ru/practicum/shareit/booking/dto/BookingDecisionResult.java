@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.Status;
+
+/**
+ * Результат решения по одному бронированию пакета: новый статус или текст ошибки
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingDecisionResult {
+    private Long bookingId;
+    private Status status;
+    private String error;
+
+    public static BookingDecisionResult applied(Long bookingId, Status status) {
+        return new BookingDecisionResult(bookingId, status, null);
+    }
+
+    public static BookingDecisionResult failed(Long bookingId, String error) {
+        return new BookingDecisionResult(bookingId, null, error);
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.dto;
 
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingDetailsView;
+import ru.practicum.shareit.booking.ItemBookingView;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -18,6 +20,28 @@ public class MapperBooking {
                 .build();
     }
 
+    public static BookingDto toBookingDto(BookingDetailsView booking) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(Item.builder()
+                        .id(booking.getItemId())
+                        .name(booking.getItemName())
+                        .description(booking.getItemDescription())
+                        .available(booking.getItemAvailable())
+                        .owner(booking.getItemOwner())
+                        .requestId(booking.getItemRequestId())
+                        .build())
+                .booker(User.builder()
+                        .id(booking.getBookerId())
+                        .name(booking.getBookerName())
+                        .email(booking.getBookerEmail())
+                        .build())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static Booking toBooking(BookingShortDto bookingDto, User user, Item item, Status status) {
         return Booking.builder()
                 .start(bookingDto.getStart())
@@ -34,4 +58,18 @@ public class MapperBooking {
                 .bookerId(booking.getBooker().getId())
                 .build();
     }
+
+    public static BookingInfoDto toBookingInfoDto(ItemBookingView booking) {
+        return BookingInfoDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
+
+    public static BookingInfoDto toBookingInfoDto(Long id, Long bookerId) {
+        return id == null ? null : BookingInfoDto.builder()
+                .id(id)
+                .bookerId(bookerId)
+                .build();
+    }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exception;
+
+public class SearchLimitException extends RuntimeException {
+
+    public SearchLimitException(final String message) {
+        super(message);
+    }
+}
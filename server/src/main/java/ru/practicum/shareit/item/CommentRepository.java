@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItem(Item item);
+
+    @Query("select c from Comment as c join fetch c.author where c.item.id in ?1")
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
 }
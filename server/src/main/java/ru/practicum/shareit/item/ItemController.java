@@ -1,6 +1,9 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,6 +16,10 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.user.Variables.ID_SHARER;
@@ -22,6 +29,7 @@ import static ru.practicum.shareit.user.Variables.ID_SHARER;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader(ID_SHARER) Long idUser,
@@ -29,6 +37,17 @@ public class ItemController {
         return itemService.createItem(idUser, itemDto);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void createItems(@RequestHeader(ID_SHARER) Long idUser,
+                            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            InputStream body,
+                            HttpServletResponse response) throws IOException {
+        itemImporter.checkOwner(idUser);
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        itemImporter.importItems(idUser, body, ndjson, response.getOutputStream());
+    }
+
     @PatchMapping("/{id}")
     public ItemDto updateItem(@RequestHeader(ID_SHARER) Long idUser,
                               @PathVariable Long id,
@@ -52,8 +71,15 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> findItems(@RequestParam(name = "text") String text,
                                    @RequestParam(required = false, defaultValue = "0") Integer from,
-                                   @RequestParam(required = false, defaultValue = "10") Integer size) {
-        return itemService.findItems(text, from, size);
+                                   @RequestParam(required = false, defaultValue = "10") Integer size,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                   LocalDateTime start,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                   LocalDateTime end) {
+        if (start == null && end == null) {
+            return itemService.findItems(text, from, size);
+        }
+        return itemService.findAvailableItems(text, from, size, start, end);
     }
 
     @PostMapping("/{id}/comment")
@@ -0,0 +1,286 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.RequestFailedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетная загрузка вещей. JSON-массив или NDJSON читается потоком по одной строке,
+ * вещи сохраняются порциями, каждая порция в своей транзакции, весь пакет в памяти не хранится.
+ * Результаты строк порции пишутся в ответ сразу после ее сохранения.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+    private final ObjectMapper objectMapper;
+    private final UserService userService;
+    private final ItemRepositoryJpa itemRepositoryJpa;
+    private final RequestRepository requestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ItemImporter(ObjectMapper objectMapper,
+                        UserService userService,
+                        ItemRepositoryJpa itemRepositoryJpa,
+                        RequestRepository requestRepository,
+                        ItemSearchIndex itemSearchIndex,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${shareit.items.import.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.userService = userService;
+        this.itemRepositoryJpa = itemRepositoryJpa;
+        this.requestRepository = requestRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Проверить владельца один раз до начала загрузки
+     */
+    public void checkOwner(Long userId) {
+        userService.getUserById(userId);
+    }
+
+    /**
+     * Загрузить вещи владельца
+     *
+     * @param ndjson тело и ответ в формате NDJSON, иначе JSON-массив
+     */
+    public void importItems(Long userId, InputStream input, boolean ndjson, OutputStream output) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken first = firstRowToken(parser, ndjson);
+            try (ResultWriter writer = new ResultWriter(objectMapper.getFactory().createGenerator(output), ndjson)) {
+                importRows(userId, parser, first, writer);
+            }
+        }
+    }
+
+    /**
+     * Прочитать начало тела до первой строки. Ошибка здесь - некорректный запрос целиком,
+     * ни одна строка еще не обработана
+     */
+    private static JsonToken firstRowToken(JsonParser parser, boolean ndjson) throws IOException {
+        try {
+            JsonToken token = parser.nextToken();
+            if (ndjson) {
+                return token;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new RequestFailedException("Ожидался JSON-массив вещей");
+            }
+            return parser.nextToken();
+        } catch (JsonProcessingException e) {
+            throw new RequestFailedException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private void importRows(Long userId, JsonParser parser, JsonToken first, ResultWriter writer) throws IOException {
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        JsonToken token = first;
+        try {
+            while (token != null && token != JsonToken.END_ARRAY) {
+                JsonNode node = parser.readValueAsTree();
+                chunk.add(readRow(index++, node));
+                if (chunk.size() == chunkSize) {
+                    writer.write(saveChunk(userId, chunk));
+                    chunk.clear();
+                }
+                token = parser.nextToken();
+            }
+            writer.write(saveChunk(userId, chunk));
+        } catch (JsonProcessingException e) {
+            writer.write(saveChunk(userId, chunk));
+            writer.write(List.of(ItemImportResult.failed(index,
+                    "Некорректный JSON, загрузка остановлена: " + e.getOriginalMessage())));
+        }
+    }
+
+    private Row readRow(int index, JsonNode node) {
+        try {
+            ItemDto itemDto = objectMapper.treeToValue(node, ItemDto.class);
+            return new Row(index, itemDto, validate(itemDto));
+        } catch (JsonProcessingException e) {
+            return new Row(index, null, "Некорректная вещь: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String validate(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Не указано название вещи";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Не указано описание вещи";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Не указана доступность вещи";
+        }
+        return null;
+    }
+
+    /**
+     * Сохранить порцию одной пакетной вставкой. Если запись или фиксация транзакции не прошла, строки порции
+     * сохраняются по одной, чтобы ошибка досталась только строке, на которой падает запись.
+     */
+    private List<ItemImportResult> saveChunk(Long userId, List<Row> chunk) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                checkRequests(chunk);
+                List<Item> items = chunk.stream()
+                        .filter(row -> row.error == null)
+                        .map(row -> row.toItem(userId))
+                        .collect(Collectors.toList());
+                itemRepositoryJpa.saveAll(items);
+                items.forEach(itemSearchIndex::update);
+                return chunk.stream()
+                        .map(Row::toResult)
+                        .collect(Collectors.toList());
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Item import chunk of user {} failed, saving its rows one by one", userId, e);
+            return chunk.stream()
+                    .map(row -> saveRow(userId, row))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private ItemImportResult saveRow(Long userId, Row row) {
+        if (row.error != null) {
+            return row.toResult();
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                itemRepositoryJpa.save(row.toItem(userId));
+                itemSearchIndex.update(row.item);
+                return row.toResult();
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Item import row {} of user {} failed", row.index, userId, e);
+            return ItemImportResult.failed(row.index,
+                    "Не удалось сохранить вещь: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void checkRequests(List<Row> chunk) {
+        Set<Long> requestIds = chunk.stream()
+                .filter(row -> row.error == null)
+                .map(row -> row.itemDto.getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = requestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        for (Row row : chunk) {
+            if (row.error == null && row.itemDto.getRequestId() != null
+                    && !existing.contains(row.itemDto.getRequestId())) {
+                row.error = "Запрос " + row.itemDto.getRequestId() + " не найден";
+            }
+        }
+    }
+
+    /**
+     * Запись результатов строк в ответ: JSON-массив или NDJSON. После каждой порции ответ сбрасывается клиенту
+     */
+    private static final class ResultWriter implements AutoCloseable {
+        private final JsonGenerator generator;
+        private final boolean ndjson;
+
+        private ResultWriter(JsonGenerator generator, boolean ndjson) throws IOException {
+            this.generator = generator;
+            this.ndjson = ndjson;
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+        }
+
+        void write(List<ItemImportResult> results) throws IOException {
+            if (results.isEmpty()) {
+                return;
+            }
+            for (ItemImportResult result : results) {
+                generator.writeObject(result);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            }
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (generator) {
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        }
+    }
+
+    /**
+     * Строка пакета: прочитанная вещь, ошибка проверки и созданная вещь
+     */
+    private static final class Row {
+        private final int index;
+        private final ItemDto itemDto;
+        private String error;
+        private Item item;
+
+        private Row(int index, ItemDto itemDto, String error) {
+            this.index = index;
+            this.itemDto = itemDto;
+            this.error = error;
+        }
+
+        Item toItem(Long userId) {
+            item = Item.builder()
+                    .name(itemDto.getName())
+                    .description(itemDto.getDescription())
+                    .available(itemDto.getAvailable())
+                    .owner(userId)
+                    .requestId(itemDto.getRequestId())
+                    .build();
+            return item;
+        }
+
+        ItemImportResult toResult() {
+            return error != null
+                    ? ItemImportResult.failed(index, error)
+                    : ItemImportResult.created(index, item.getId());
+        }
+    }
+}
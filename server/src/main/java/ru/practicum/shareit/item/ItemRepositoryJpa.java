@@ -3,20 +3,31 @@ package ru.practicum.shareit.item;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepositoryJpa extends JpaRepository<Item, Long> {
-    List<Item> findByOwner(Long owner);
+    boolean existsByOwner(Long owner);
 
     List<Item> findByOwner(Long owner, Pageable pageable);
 
     @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) and available = true " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')) and available = true")
+            "where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by i.id")
     List<Item> search(String text, Pageable pageable);
 
-    List<Item> findByRequestId(Long requestId);
+    @Query("select new ru.practicum.shareit.item.dto.ItemShortDto(i.id, i.name, i.description, i.available, i.requestId) " +
+            "from Item as i where i.requestId in ?1")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<ItemShortDto> findByRequestIdIn(Collection<Long> requestIds);
+
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 
 }
@@ -0,0 +1,375 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс доступных вещей для поиска по подстроке в названии и описании.
+ * Триграмма текста -> отсортированный массив id вещей. Чтение идет без блокировок
+ * по неизменяемым массивам, изменения применяются одним писателем после коммита транзакции.
+ * Для запросов короче триграммы кандидаты - отсортированный массив id всех вещей индекса.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final int REBUILD_PAGE = 1000;
+    private static final long[] EMPTY = new long[0];
+
+    private final ItemRepositoryJpa itemRepositoryJpa;
+    private final boolean enabled;
+    private final Map<String, long[]> postings = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedItem> items = new ConcurrentHashMap<>();
+    private volatile long[] allIds = EMPTY;
+    private final Set<Long> updatedDuringRebuild = new HashSet<>();
+    private final Set<Long> ownersRemovedDuringRebuild = new HashSet<>();
+    private final Set<Long> requestsRemovedDuringRebuild = new HashSet<>();
+    private volatile boolean ready;
+    private boolean rebuilding;
+
+    public ItemSearchIndex(ItemRepositoryJpa itemRepositoryJpa,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled) {
+        this.itemRepositoryJpa = itemRepositoryJpa;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Индекс построен и может отвечать на поиск вместо БД
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Построение индекса по всем вещам из БД при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            rebuilding = true;
+        }
+        long lastId = 0;
+        List<Item> page;
+        do {
+            page = itemRepositoryJpa.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_PAGE));
+            synchronized (this) {
+                long[] added = new long[page.size()];
+                int count = 0;
+                for (Item item : page) {
+                    if (!updatedDuringRebuild.contains(item.getId())
+                            && !ownersRemovedDuringRebuild.contains(item.getOwner())
+                            && !requestsRemovedDuringRebuild.contains(item.getRequestId())) {
+                        apply(item.getId(), IndexedItem.of(item));
+                        if (items.containsKey(item.getId())) {
+                            added[count++] = item.getId();
+                        }
+                    }
+                }
+                allIds = union(allIds, Arrays.copyOf(added, count));
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REBUILD_PAGE);
+        synchronized (this) {
+            rebuilding = false;
+            updatedDuringRebuild.clear();
+            ownersRemovedDuringRebuild.clear();
+            requestsRemovedDuringRebuild.clear();
+        }
+        ready = true;
+        log.info("Item search index is built: {} items, {} grams", items.size(), postings.size());
+    }
+
+    /**
+     * Обновить вещь в индексе. Внутри транзакции изменение применяется только после коммита.
+     */
+    public void update(Item item) {
+        if (!enabled) {
+            return;
+        }
+        Long id = item.getId();
+        IndexedItem indexedItem = IndexedItem.of(item);
+        afterCommit(() -> applyUpdate(id, indexedItem));
+    }
+
+    /**
+     * Убрать из индекса вещи, которые БД удаляет каскадом вместе с пользователем: его собственные вещи
+     * и вещи других владельцев, созданные по его запросам. Внутри транзакции изменение применяется
+     * только после коммита.
+     */
+    public void removeUser(Long userId, Collection<Long> requestIds) {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> requests = new HashSet<>(requestIds);
+        afterCommit(() -> applyRemoveUser(userId, requests));
+    }
+
+    /**
+     * Поиск доступных вещей, содержащих текст в названии или описании.
+     * Постраничность совпадает с запросом в БД: страница from / size, сортировка по id.
+     */
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        String query = normalize(text);
+        long[] candidates = query.length() < GRAM ? allIds : candidates(query);
+        List<ItemDto> result = new ArrayList<>();
+        long skip = (long) (from / size) * size;
+        for (long id : candidates) {
+            IndexedItem item = items.get(id);
+            if (item == null || !item.matches(query)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(item.toItemDto());
+            if (result.size() == size) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private long[] candidates(String query) {
+        List<long[]> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            long[] list = postings.get(gram);
+            if (list == null) {
+                return EMPTY;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private synchronized void applyRemoveUser(Long userId, Set<Long> requestIds) {
+        if (rebuilding) {
+            ownersRemovedDuringRebuild.add(userId);
+            requestsRemovedDuringRebuild.addAll(requestIds);
+        }
+        items.entrySet().stream()
+                .filter(entry -> userId.equals(entry.getValue().getOwner())
+                        || requestIds.contains(entry.getValue().getRequestId()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(id -> {
+                    IndexedItem previous = items.remove(id);
+                    removeFromAllIds(id);
+                    for (String gram : previous.grams()) {
+                        postings.computeIfPresent(gram, (key, list) -> remove(list, id));
+                    }
+                });
+    }
+
+    private synchronized void applyUpdate(Long id, IndexedItem indexedItem) {
+        if (rebuilding) {
+            updatedDuringRebuild.add(id);
+        }
+        apply(id, indexedItem);
+        if (items.containsKey(id)) {
+            allIds = insert(allIds, id);
+        } else {
+            removeFromAllIds(id);
+        }
+    }
+
+    private void removeFromAllIds(long id) {
+        long[] ids = remove(allIds, id);
+        allIds = ids == null ? EMPTY : ids;
+    }
+
+    private void apply(Long id, IndexedItem indexedItem) {
+        IndexedItem previous = items.get(id);
+        Set<String> oldGrams = previous == null ? Set.of() : previous.grams();
+        Set<String> newGrams = indexedItem.isAvailable() ? indexedItem.grams() : Set.of();
+        if (indexedItem.isAvailable()) {
+            items.put(id, indexedItem);
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.compute(gram, (key, list) -> insert(list == null ? EMPTY : list, id));
+            }
+        }
+        for (String gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                postings.computeIfPresent(gram, (key, list) -> remove(list, id));
+            }
+        }
+        if (!indexedItem.isAvailable()) {
+            items.remove(id);
+        }
+    }
+
+    private static long[] insert(long[] list, long id) {
+        int index = Arrays.binarySearch(list, id);
+        if (index >= 0) {
+            return list;
+        }
+        index = -index - 1;
+        long[] result = new long[list.length + 1];
+        System.arraycopy(list, 0, result, 0, index);
+        result[index] = id;
+        System.arraycopy(list, index, result, index + 1, list.length - index);
+        return result;
+    }
+
+    private static long[] remove(long[] list, long id) {
+        int index = Arrays.binarySearch(list, id);
+        if (index < 0) {
+            return list;
+        }
+        if (list.length == 1) {
+            return null;
+        }
+        long[] result = new long[list.length - 1];
+        System.arraycopy(list, 0, result, 0, index);
+        System.arraycopy(list, index + 1, result, index, list.length - index - 1);
+        return result;
+    }
+
+    private static long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long[] union(long[] first, long[] second) {
+        long[] result = new long[first.length + second.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length || j < second.length) {
+            if (j == second.length || i < first.length && first[i] < second[j]) {
+                result[count++] = first[i++];
+            } else if (i == first.length || first[i] > second[j]) {
+                result[count++] = second[j++];
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Снимок вещи в индексе. Хранит нормализованные поля для проверки кандидатов.
+     */
+    private static final class IndexedItem {
+        private final Item item;
+        private final String name;
+        private final String description;
+
+        private IndexedItem(Item item) {
+            this.item = item;
+            this.name = normalize(item.getName());
+            this.description = normalize(item.getDescription());
+        }
+
+        static IndexedItem of(Item item) {
+            return new IndexedItem(Item.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .owner(item.getOwner())
+                    .requestId(item.getRequestId())
+                    .build());
+        }
+
+        Long getOwner() {
+            return item.getOwner();
+        }
+
+        Long getRequestId() {
+            return item.getRequestId();
+        }
+
+        boolean isAvailable() {
+            return Boolean.TRUE.equals(item.getAvailable());
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        ItemDto toItemDto() {
+            return ItemMapper.toItemDto(item);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -17,6 +18,8 @@ public interface ItemService {
 
     List<ItemDto> findItems(String text, Integer from, Integer size);
 
+    List<ItemDto> findAvailableItems(String text, Integer from, Integer size, LocalDateTime start, LocalDateTime end);
+
     CommentDto addComment(Long idUser, Long idItem, CommentDto commentDto);
 
 }
@@ -1,15 +1,21 @@
 package ru.practicum.shareit.item;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingView;
+import ru.practicum.shareit.booking.LastNextBookingView;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.MapperBooking;
 import ru.practicum.shareit.exception.FailedOwnerException;
 import ru.practicum.shareit.exception.MissingIdException;
 import ru.practicum.shareit.exception.RequestFailedException;
+import ru.practicum.shareit.exception.SearchLimitException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -23,7 +29,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
@@ -35,20 +43,41 @@ import static ru.practicum.shareit.item.dto.ItemMapper.toItemDto;
 
 @Service
 @Transactional(readOnly = true)
-@RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    static final int AVAILABILITY_BATCH = 100;
+
     private final UserService userService;
     private final ItemRepositoryJpa itemRepositoryJpa;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final int availabilityMaxBatches;
+
+    public ItemServiceImpl(UserService userService,
+                           ItemRepositoryJpa itemRepositoryJpa,
+                           BookingRepository bookingRepository,
+                           CommentRepository commentRepository,
+                           ItemSearchIndex itemSearchIndex,
+                           BookingIntervalIndex bookingIntervalIndex,
+                           @Value("${shareit.items.available-search.max-batches:50}") int availabilityMaxBatches) {
+        this.userService = userService;
+        this.itemRepositoryJpa = itemRepositoryJpa;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.availabilityMaxBatches = availabilityMaxBatches;
+    }
 
     /**
      * Добавить вещь
      */
     @Transactional
     public ItemDto createItem(Long userId, ItemDto itemDto) {
-        Item newItem = toItem(itemDto, UserMapper.toUser(userService.getUserById(userId)));
-        return toItemDto(itemRepositoryJpa.save(newItem));
+        Item newItem = itemRepositoryJpa.save(toItem(itemDto, UserMapper.toUser(userService.getUserById(userId))));
+        itemSearchIndex.update(newItem);
+        return toItemDto(newItem);
     }
 
     /**
@@ -62,7 +91,9 @@ public class ItemServiceImpl implements ItemService {
         ofNullable(itemDto.getName()).ifPresent(updateItem::setName);
         ofNullable(itemDto.getDescription()).ifPresent(updateItem::setDescription);
         ofNullable(itemDto.getAvailable()).ifPresent(updateItem::setAvailable);
-        return toItemDto(itemRepositoryJpa.save(updateItem));
+        Item savedItem = itemRepositoryJpa.save(updateItem);
+        itemSearchIndex.update(savedItem);
+        return toItemDto(savedItem);
     }
 
     /**
@@ -82,8 +113,7 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> getAllUserItems(Long idUser, Integer from, Integer size) {
         int start = from / size;
         PageRequest page = PageRequest.of(start, size);
-        return itemRepositoryJpa.findByOwner(idUser, page).stream()
-                .map(item -> setBookingAndCommentInfo(item, idUser))
+        return setBookingAndCommentInfo(itemRepositoryJpa.findByOwner(idUser, page)).stream()
                 .sorted(Comparator.comparing(ItemDto::getId))
                 .collect(Collectors.toList());
     }
@@ -93,15 +123,55 @@ public class ItemServiceImpl implements ItemService {
      */
     @Override
     public List<ItemDto> findItems(String text, Integer from, Integer size) {
-        int start = from / size;
-        PageRequest page = PageRequest.of(start, size);
         if (text.isEmpty()) {
             return new ArrayList<>();
-        } else {
-            return itemRepositoryJpa.search(text, page).stream()
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
         }
+        return searchPage(text, from / size, size);
+    }
+
+    /**
+     * Поиск вещей, свободных в период [start, end).
+     * Найденные вещи читаются пачками и отсеиваются по индексу занятости, пока не наберется страница.
+     * Просматривается не больше shareit.items.available-search.max-batches пачек с начала выдачи:
+     * если страница за это время не набралась, а найденные вещи не кончились, поиск завершается ошибкой,
+     * чтобы неполная страница не выглядела последней.
+     */
+    @Override
+    public List<ItemDto> findAvailableItems(String text, Integer from, Integer size,
+                                            LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new RequestFailedException("Период поиска указан некорректно");
+        }
+        List<ItemDto> result = new ArrayList<>();
+        if (text.isEmpty()) {
+            return result;
+        }
+        long skip = (long) (from / size) * size;
+        int batch = Math.max(size, AVAILABILITY_BATCH);
+        for (int page = 0; page < availabilityMaxBatches; page++) {
+            List<ItemDto> candidates = searchPage(text, page, batch);
+            Set<Long> busy = bookingIntervalIndex.findBusy(candidates.stream()
+                    .map(ItemDto::getId)
+                    .collect(Collectors.toList()), start, end);
+            for (ItemDto candidate : candidates) {
+                if (busy.contains(candidate.getId())) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                result.add(candidate);
+                if (result.size() == size) {
+                    return result;
+                }
+            }
+            if (candidates.size() < batch) {
+                return result;
+            }
+        }
+        throw new SearchLimitException("Просмотрено " + (long) availabilityMaxBatches * batch
+                + " найденных вещей, но страница не набрана: уточните текст поиска или период");
     }
 
     /**
@@ -124,6 +194,18 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    /**
+     * Страница поиска доступных вещей: из индекса, если он построен, иначе из БД
+     */
+    private List<ItemDto> searchPage(String text, int page, int size) {
+        if (itemSearchIndex.isReady()) {
+            return itemSearchIndex.search(text, page * size, size);
+        }
+        return itemRepositoryJpa.search(text, PageRequest.of(page, size)).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Проверяем является ли айди владельцем вещи
      */
@@ -144,14 +226,44 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
         itemDto.setComments(comments);
         if (item.getOwner().equals(idUser)) {
-            List<Booking> lastBooking = bookingRepository
-                    .findDByItemAndStatusAndStartBeforeOrderByEndDesc(item, Status.APPROVED, dateTime);
-            itemDto.setLastBooking(lastBooking.isEmpty() ? null : toBookingInfoDto(lastBooking.get(0)));
-            List<Booking> nextBooking = bookingRepository
-                    .findDByItemAndStatusAndStartAfterOrderByStartAsc(item, Status.APPROVED, dateTime);
-            itemDto.setNextBooking(nextBooking.isEmpty() ? null : toBookingInfoDto(nextBooking.get(0)));
+            LastNextBookingView bookings = bookingRepository
+                    .findLastAndNextBooking(item.getId(), Status.APPROVED.name(), dateTime);
+            itemDto.setLastBooking(toBookingInfoDto(bookings.getLastId(), bookings.getLastBookerId()));
+            itemDto.setNextBooking(toBookingInfoDto(bookings.getNextId(), bookings.getNextBookerId()));
         }
         return itemDto;
     }
 
+    /**
+     * Добавляем в список ItemDto владельца информацию о резервировании и комментариях.
+     * Данные загружаются для всей страницы вещей сразу и раскладываются по id вещи.
+     */
+    private List<ItemDto> setBookingAndCommentInfo(List<Item> items) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        LocalDateTime dateTime = LocalDateTime.now();
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        Map<Long, BookingInfoDto> lastBookings = bookingRepository
+                .findLastBookingsByItemIds(itemIds, Status.APPROVED.name(), dateTime).stream()
+                .collect(Collectors.toMap(ItemBookingView::getItemId, MapperBooking::toBookingInfoDto));
+        Map<Long, BookingInfoDto> nextBookings = bookingRepository
+                .findNextBookingsByItemIds(itemIds, Status.APPROVED.name(), dateTime).stream()
+                .collect(Collectors.toMap(ItemBookingView::getItemId, MapperBooking::toBookingInfoDto));
+        return items.stream()
+                .map(item -> {
+                    ItemDto itemDto = toItemDto(item);
+                    itemDto.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+                    itemDto.setLastBooking(lastBookings.get(item.getId()));
+                    itemDto.setNextBooking(nextBookings.get(item.getId()));
+                    return itemDto;
+                })
+                .collect(Collectors.toList());
+    }
+
 }
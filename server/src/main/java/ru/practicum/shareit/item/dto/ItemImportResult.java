@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Результат загрузки одной строки пакета: id созданной вещи или текст ошибки
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    private int index;
+    private Long id;
+    private String error;
+
+    public static ItemImportResult created(int index, Long id) {
+        return new ItemImportResult(index, id, null);
+    }
+
+    public static ItemImportResult failed(int index, String error) {
+        return new ItemImportResult(index, null, error);
+    }
+}
@@ -2,13 +2,20 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<ItemRequest> findByRequestorIdOrderByCreatedAsc(Long requestorId);
 
     List<ItemRequest> findByRequestorIdNotOrderByCreatedAsc(Long requestorId, Pageable page);
 
+    @Query("select r.id from ItemRequest as r where r.requestorId = ?1")
+    List<Long> findIdsByRequestorId(Long requestorId);
+
 }
@@ -6,12 +6,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.MissingIdException;
 import ru.practicum.shareit.item.ItemRepositoryJpa;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.MapperRequest;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.request.dto.MapperRequest.toItemRequest;
@@ -41,10 +43,7 @@ public class RequestServiceImpl implements RequestService {
     public List<ItemRequestDto> getAllRequestsById(Long idUser) {
         checkUser(idUser);
         List<ItemRequest> itemRequests = repository.findByRequestorIdOrderByCreatedAsc(idUser);
-        return itemRequests.stream()
-                .map(MapperRequest::toItemRequestDto)
-                .peek(itemRequestDto -> itemRequestDto.setItems(itemRepositoryJpa.findByRequestId(itemRequestDto.getId())))
-                .collect(Collectors.toList());
+        return setItems(itemRequests);
     }
 
     /**
@@ -54,10 +53,7 @@ public class RequestServiceImpl implements RequestService {
         checkUser(idUser);
         PageRequest page = PageRequest.of(from, size);
         List<ItemRequest> itemRequests = repository.findByRequestorIdNotOrderByCreatedAsc(idUser, page);
-        return itemRequests.stream()
-                .map(MapperRequest::toItemRequestDto)
-                .peek(itemRequestDto -> itemRequestDto.setItems(itemRepositoryJpa.findByRequestId(itemRequestDto.getId())))
-                .collect(Collectors.toList());
+        return setItems(itemRequests);
     }
 
     /**
@@ -68,10 +64,28 @@ public class RequestServiceImpl implements RequestService {
         ItemRequest itemRequest = repository.findById(requestId)
                 .orElseThrow(() -> new MissingIdException("При запросе запроса произошла ошибка"));
         ItemRequestDto itemRequestDto = toItemRequestDto(itemRequest);
-        itemRequestDto.setItems(itemRepositoryJpa.findByRequestId(requestId));
+        itemRequestDto.setItems(itemRepositoryJpa.findByRequestIdIn(List.of(requestId)));
         return itemRequestDto;
     }
 
+    /**
+     * Заполнить вещи для страницы запросов одним запросом в БД
+     */
+    private List<ItemRequestDto> setItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemShortDto>> itemsByRequest = itemRepositoryJpa.findByRequestIdIn(itemRequests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(ItemShortDto::getRequestId));
+        return itemRequests.stream()
+                .map(MapperRequest::toItemRequestDto)
+                .peek(itemRequestDto -> itemRequestDto.setItems(
+                        itemsByRequest.getOrDefault(itemRequestDto.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Проверка что пользователь существует
      */
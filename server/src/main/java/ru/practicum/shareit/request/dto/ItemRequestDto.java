@@ -3,7 +3,7 @@ package ru.practicum.shareit.request.dto;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,5 +16,5 @@ public class ItemRequestDto {
     private String description;
     private LocalDateTime created;
     private Long requestorId;
-    private List<Item> items;
+    private List<ItemShortDto> items;
 }
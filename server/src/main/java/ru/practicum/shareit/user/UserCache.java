@@ -0,0 +1,82 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Кэш пользователей по id. Отсутствующий пользователь тоже кэшируется, но на меньшее время,
+ * чтобы запросы с несуществующим X-Sharer-User-Id не доходили до БД.
+ */
+@Component
+public class UserCache {
+    private final Cache<Long, Optional<UserDto>> cache;
+
+    public UserCache(@Value("${shareit.user.cache.max-size:10000}") long maxSize,
+                     @Value("${shareit.user.cache.ttl:10m}") Duration ttl,
+                     @Value("${shareit.user.cache.negative-ttl:30s}") Duration negativeTtl,
+                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UserExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<UserDto> get(Long id, Function<Long, Optional<UserDto>> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Сбросить пользователя из кэша. Внутри транзакции сброс выполняется после ее завершения,
+     * чтобы параллельное чтение не вернуло в кэш старое значение.
+     */
+    public void evict(Long id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private static final class UserExpiry implements Expiry<Long, Optional<UserDto>> {
+        private final long ttl;
+        private final long negativeTtl;
+
+        private UserExpiry(long ttl, long negativeTtl) {
+            this.ttl = ttl;
+            this.negativeTtl = negativeTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, Optional<UserDto> user, long currentTime) {
+            return user.isPresent() ? ttl : negativeTtl;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<UserDto> user, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<UserDto> user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface UserService {
 
@@ -12,6 +13,8 @@ public interface UserService {
 
     UserDto getUserById(Long id);
 
+    Optional<UserDto> findUserById(Long id);
+
     List<UserDto> getAllUsers();
 
     void deleteUser(Long id);
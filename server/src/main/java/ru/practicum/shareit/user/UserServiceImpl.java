@@ -1,13 +1,26 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.exception.MissingIdException;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
@@ -19,6 +32,12 @@ import static ru.practicum.shareit.user.dto.UserMapper.toUserDto;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepositoryJpa repositoryJpa;
+    private final UserCache userCache;
+    private final ItemSearchIndex itemSearchIndex;
+    private final RequestRepository requestRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final EntityManagerFactory entityManagerFactory;
 
     /**
      * Создание пользователя
@@ -26,8 +45,9 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public UserDto createUser(UserDto userDto) {
-        User user = toUser(userDto);
-        return toUserDto(repositoryJpa.save(user));
+        User user = repositoryJpa.save(toUser(userDto));
+        userCache.evict(user.getId());
+        return toUserDto(user);
     }
 
     /**
@@ -40,6 +60,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new MissingIdException("При обновлении пользователя произошла ошибка"));
         ofNullable(userDto.getName()).ifPresent(updateUser::setName);
         ofNullable(userDto.getEmail()).ifPresent(updateUser::setEmail);
+        userCache.evict(id);
         return toUserDto(repositoryJpa.save(updateUser));
     }
 
@@ -48,9 +69,16 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public UserDto getUserById(Long id) {
-        User user = repositoryJpa.findById(id)
+        return findUserById(id)
                 .orElseThrow(() -> new MissingIdException("При запросе пользователя произошла ошибка"));
-        return toUserDto(user);
+    }
+
+    /**
+     * Поиск пользователя по id через кэш
+     */
+    @Override
+    public Optional<UserDto> findUserById(Long id) {
+        return userCache.get(id, key -> repositoryJpa.findById(key).map(UserMapper::toUserDto));
     }
 
     /**
@@ -64,11 +92,32 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Удаление пользователя
+     * Удаление пользователя. Его запросы, его вещи и вещи по его запросам БД удаляет каскадом
+     * мимо Hibernate, поэтому после коммита они убираются из индекса поиска, а регионы вещей,
+     * запросов и результаты запросов - из кэша второго уровня. Вместе с пользователем удаляются
+     * его бронирования: вещи, которые он бронировал, убираются из индекса занятости.
      */
     @Transactional
     @Override
     public void deleteUser(Long id) {
+        userCache.evict(id);
+        List<Long> requestIds = requestRepository.findIdsByRequestorId(id);
+        List<Long> bookedItemIds = bookingRepository.findItemIdsByBookerId(id, LocalDateTime.now());
         repositoryJpa.deleteById(id);
+        itemSearchIndex.removeUser(id, requestIds);
+        bookingIntervalIndex.evict(bookedItemIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictCascadedEntities();
+            }
+        });
+    }
+
+    private void evictCascadedEntities() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evict(Item.class);
+        cache.evict(ItemRequest.class);
+        cache.evictQueryRegions();
     }
 }
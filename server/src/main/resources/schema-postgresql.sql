@@ -0,0 +1,18 @@
+create extension if not exists pg_trgm;
+create extension if not exists btree_gist;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON ITEMS USING gin (upper(name) gin_trgm_ops) WHERE available = true;
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON ITEMS USING gin (upper(description) gin_trgm_ops) WHERE available = true;
+
+-- бронирования, ожидающие подтверждения, составляют малую часть таблицы
+CREATE INDEX IF NOT EXISTS bookings_booker_waiting_idx ON BOOKINGS (booker_id, start_date, id) WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS bookings_item_waiting_idx ON BOOKINGS (item_id, start_date, id) WHERE status = 'WAITING';
+
+-- загрузка индекса занятости вещей: будущие активные бронирования вещи
+CREATE INDEX IF NOT EXISTS bookings_item_active_end_idx ON BOOKINGS (item_id, end_date) INCLUDE (start_date)
+    WHERE status IN ('WAITING', 'APPROVED');
+
+-- последняя защита от пересечения активных бронирований одной вещи, основная проверка идет в индексе занятости
+ALTER TABLE BOOKINGS ADD CONSTRAINT bookings_item_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
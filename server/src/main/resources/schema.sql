@@ -1,7 +1,20 @@
 drop table if exists USERS, ITEMS, REQUEST, BOOKINGS, COMMENTS;
+drop sequence if exists users_seq;
+drop sequence if exists request_seq;
+drop sequence if exists items_seq;
+drop sequence if exists bookings_seq;
+drop sequence if exists comments_seq;
+
+-- Шаг последовательностей равен allocationSize сущностей: Hibernate выдает id блоками и пишет вставки пакетами.
+-- Вставки мимо Hibernate получают id из тех же последовательностей через default
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists request_seq start with 1 increment by 50;
+create sequence if not exists items_seq start with 1 increment by 50;
+create sequence if not exists bookings_seq start with 1 increment by 50;
+create sequence if not exists comments_seq start with 1 increment by 50;
 
 create table if not exists USERS (
-    id              BIGINT generated by default as identity,
+    id              BIGINT default nextval('users_seq'),
     name            VARCHAR(255),
     email           VARCHAR(512),
     constraint UNIQUE_EMAIL UNIQUE (email),
@@ -10,7 +23,7 @@ create table if not exists USERS (
 
 
 create table if not exists REQUEST (
-    id              BIGINT generated by default as identity,
+    id              BIGINT default nextval('request_seq'),
     description     VARCHAR(1024),
     created         TIMESTAMP WITHOUT TIME ZONE,
     requestor_id    BIGINT,
@@ -19,7 +32,7 @@ create table if not exists REQUEST (
 );
 
 create table if not exists ITEMS (
-    id              BIGINT generated by default as identity,
+    id              BIGINT default nextval('items_seq'),
     name            VARCHAR(255),
     description     VARCHAR(1024),
     available       Boolean,
@@ -31,7 +44,7 @@ create table if not exists ITEMS (
 );
 
 create table if not exists BOOKINGS (
-    id              BIGINT generated by default as identity,
+    id              BIGINT default nextval('bookings_seq'),
     start_date      TIMESTAMP WITHOUT TIME ZONE,
     end_date        TIMESTAMP WITHOUT TIME ZONE,
     item_id         BIGINT,
@@ -43,7 +56,7 @@ create table if not exists BOOKINGS (
 );
 
 create table if not exists COMMENTS (
-    id              BIGINT generated by default as identity,
+    id              BIGINT default nextval('comments_seq'),
     text            VARCHAR(255),
     item_id         BIGINT,
     author_id       BIGINT,
@@ -53,8 +66,17 @@ create table if not exists COMMENTS (
     constraint COMMENTS_ITEMS_ITEMS_ID_FK foreign key (item_id) references ITEMS(id) ON DELETE CASCADE
 );
 
-CREATE UNIQUE INDEX users_id_idx ON USERS (id);
 CREATE INDEX users_name_idx ON USERS(name);
-CREATE UNIQUE INDEX items_id_idx ON ITEMS (id);
-CREATE UNIQUE INDEX comments_id_idx ON COMMENTS (id);
-CREATE UNIQUE INDEX bookings_id_idx ON BOOKINGS (id);
+-- ItemRepositoryJpa: вещи владельца, вещи по запросу
+CREATE INDEX items_owner_idx ON ITEMS (owner_id, id);
+CREATE INDEX items_request_idx ON ITEMS (request_id);
+-- CommentRepository: комментарии вещи
+CREATE INDEX comments_item_idx ON COMMENTS (item_id);
+-- RequestRepository: свои запросы и чужие запросы по дате создания
+CREATE INDEX request_requestor_created_idx ON REQUEST (requestor_id, created);
+CREATE INDEX request_created_idx ON REQUEST (created);
+-- BookingRepository: бронирования пользователя и вещей владельца по дате начала
+CREATE INDEX bookings_booker_start_idx ON BOOKINGS (booker_id, start_date, id);
+CREATE INDEX bookings_item_start_idx ON BOOKINGS (item_id, start_date, id);
+-- BookingRepository: последнее и следующее подтвержденное бронирование, проверка перед комментарием
+CREATE INDEX bookings_item_status_start_idx ON BOOKINGS (item_id, status, start_date);
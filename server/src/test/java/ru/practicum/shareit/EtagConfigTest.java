@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.Filter;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class EtagConfigTest {
+    private final Filter filter = new EtagConfig().etagFilter().getFilter();
+
+    @Test
+    void getIsBufferedTest() throws Exception {
+        AtomicBoolean buffered = new AtomicBoolean();
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/items/1"), buffered);
+
+        assertThat(buffered.get(), equalTo(true));
+        assertThat(response.getHeader(HttpHeaders.ETAG), notNullValue());
+    }
+
+    @Test
+    void writeIsNotBufferedTest() throws Exception {
+        AtomicBoolean buffered = new AtomicBoolean();
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("PATCH", "/items/1"), buffered);
+
+        assertThat(buffered.get(), equalTo(false));
+        assertThat(response.getHeader(HttpHeaders.ETAG), nullValue());
+    }
+
+    @Test
+    void batchIsNotBufferedTest() throws Exception {
+        AtomicBoolean buffered = new AtomicBoolean();
+        perform(new MockHttpServletRequest("POST", "/items/batch"), buffered);
+        perform(new MockHttpServletRequest("GET", "/items/batch"), buffered);
+
+        assertThat(buffered.get(), equalTo(false));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, AtomicBoolean buffered)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                buffered.compareAndSet(false, resp instanceof ContentCachingResponseWrapper);
+                resp.getWriter().write("{\"id\":1}");
+            }
+        }, filter).doFilter(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class HibernateCacheMetricsTest {
+    private final MeterRegistry meterRegistry;
+    private final UserService userService;
+    private final ItemService itemService;
+
+    @Test
+    void secondLevelCacheHitsArePublishedTest() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .email("owner@test.com")
+                .name("owner")
+                .build());
+        ItemDto item = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build());
+
+        itemService.getItemById(owner.getId(), item.getId());
+        itemService.getItemById(owner.getId(), item.getId());
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "items", "result", "hit")
+                .functionCounter();
+        FunctionCounter misses = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "items", "result", "miss")
+                .functionCounter();
+        assertThat(hits, notNullValue());
+        assertThat(misses, notNullValue());
+        assertThat(hits.count(), greaterThanOrEqualTo(1.0));
+        assertThat(meterRegistry.find("hibernate.cache.query.requests").functionCounter(), notNullValue());
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.exception.RequestFailedException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Параллельные операции с бронированиями одной вещи: создание идет по очереди под блокировкой вещи,
+ * из двух одновременных подтверждений одного бронирования условное обновление пропускает только одно,
+ * из одновременных пакетов решений каждое решение применяет и получает в ответе только один пакет.
+ */
+@SpringBootTest(
+        properties = {
+                "db.name=test",
+                "logging.level.org.springframework.transaction.interceptor=INFO",
+                "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO"
+        },
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class BookingConcurrencyTest {
+    private static final int SLOTS = 500;
+    private static final int THREADS = 32;
+    private static final int BATCH = 50;
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.createUser(UserDto.builder()
+                .email("owner@test.com")
+                .name("owner")
+                .build());
+        booker = userService.createUser(UserDto.builder()
+                .email("booker@test.com")
+                .name("booker")
+                .build());
+        item = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build());
+    }
+
+    @Test
+    void parallelBookingsOfOneItemTest() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Callable<BookingDto>> creates = new ArrayList<>();
+        for (int i = 0; i < SLOTS * 2; i++) {
+            int slot = i / 2;
+            creates.add(() -> bookingService.createBooking(booker.getId(), BookingShortDto.builder()
+                    .start(start.plusHours(slot))
+                    .end(start.plusHours(slot + 1))
+                    .itemId(item.getId())
+                    .build()));
+        }
+
+        List<BookingDto> created = run(creates);
+
+        assertThat(created.size(), equalTo(SLOTS));
+
+        List<Callable<BookingDto>> approves = new ArrayList<>();
+        for (BookingDto booking : created) {
+            approves.add(() -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+            approves.add(() -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+        }
+
+        List<BookingDto> approved = run(approves);
+
+        assertThat(approved.size(), equalTo(SLOTS));
+        List<Booking> bookings = bookingRepository.findAll();
+        bookings.sort(Comparator.comparing(Booking::getStart));
+        assertThat(bookings.size(), equalTo(SLOTS));
+        for (Booking booking : bookings) {
+            assertThat(booking.getStatus(), equalTo(Status.APPROVED));
+        }
+        for (int i = 1; i < bookings.size(); i++) {
+            assertThat(bookings.get(i).getStart(), greaterThanOrEqualTo(bookings.get(i - 1).getEnd()));
+        }
+    }
+
+    @Test
+    void parallelBatchesReportEachDecisionOnceTest() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int slot = 0; slot < BATCH; slot++) {
+            BookingDto booking = bookingService.createBooking(booker.getId(), BookingShortDto.builder()
+                    .start(start.plusHours(slot))
+                    .end(start.plusHours(slot + 1))
+                    .itemId(item.getId())
+                    .build());
+            decisions.add(BookingDecisionDto.builder().bookingId(booking.getId()).approved(false).build());
+        }
+        List<Callable<List<BookingDecisionResult>>> batches = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            batches.add(() -> bookingService.approveBookings(owner.getId(), decisions));
+        }
+
+        long applied = run(batches).stream()
+                .flatMap(List::stream)
+                .filter(result -> result.getError() == null)
+                .count();
+
+        assertThat(applied, equalTo((long) BATCH));
+    }
+
+    /**
+     * Выполнить операции параллельно и вернуть успешные результаты. Отказы по бизнес-проверкам ожидаемы.
+     */
+    private <T> List<T> run(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<T> result = new ArrayList<>();
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                try {
+                    result.add(future.get());
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof RequestFailedException)) {
+                        throw e;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -21,12 +22,17 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.user.Variables.ID_SHARER;
@@ -110,6 +116,31 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())));
     }
 
+    @Test
+    void approveBookingsTest() throws Exception {
+        when(bookingService.approveBookings(anyLong(), anyList()))
+                .thenReturn(List.of(BookingDecisionResult.applied(1L, Status.APPROVED),
+                        BookingDecisionResult.failed(2L, "Статус бронирования уже был утвержден.")));
+
+        mvc.perform(patch("/bookings/batch")
+                        .content("[{\"bookingId\":1,\"approved\":true},{\"bookingId\":2,\"approved\":false}]")
+                        .header(ID_SHARER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId", is(1L), Long.class))
+                .andExpect(jsonPath("$[0].status", is(Status.APPROVED.toString())))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].bookingId", is(2L), Long.class))
+                .andExpect(jsonPath("$[1].status").doesNotExist())
+                .andExpect(jsonPath("$[1].error", is("Статус бронирования уже был утвержден.")));
+
+        verify(bookingService).approveBookings(eq(1L), argThat(decisions -> decisions.size() == 2
+                && decisions.get(0).getBookingId() == 1L && decisions.get(0).getApproved()
+                && decisions.get(1).getBookingId() == 2L && !decisions.get(1).getApproved()));
+    }
+
     @Test
     void getBookingByIdTest() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong()))
@@ -161,4 +192,18 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].item.id", is(bookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$.[0].status", is(bookingDto.getStatus().toString())));
     }
+
+    @Test
+    void getAllBookingsByCursorTest() throws Exception {
+        String cursor = BookingCursor.encode(bookingDto);
+        when(bookingService.getAllBookingsByCursor(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(bookings);
+
+        mvc.perform(get("/bookings?size=1&cursor=" + cursor)
+                        .header(ID_SHARER, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingCursor.NEXT_CURSOR, cursor))
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class));
+    }
 }
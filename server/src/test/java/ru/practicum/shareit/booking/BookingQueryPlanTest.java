@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepositoryJpa;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepositoryJpa;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * EXPLAIN для каждого запроса репозиториев: ни один не должен читать BOOKINGS полным сканированием
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.BookingQueryPlanTest$SqlRecorder")
+public class BookingQueryPlanTest {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static final String BOOKINGS_SCAN = "BOOKINGS.TABLESCAN";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepositoryJpa itemRepositoryJpa;
+    @Autowired
+    private UserRepositoryJpa userRepositoryJpa;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    private User user;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        user = userRepositoryJpa.save(User.builder()
+                .email("test@test.com")
+                .name("testName")
+                .build());
+        item = itemRepositoryJpa.save(Item.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(user.getId())
+                .build());
+        userRepositoryJpa.flush();
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void repositoryQueriesUseIndexesTest() throws SQLException {
+        Long id = user.getId();
+        LocalDateTime now = LocalDateTime.now();
+        Pageable page = PageRequest.of(0, 10);
+
+        bookingRepository.getAllBookingsById(id, page);
+        bookingRepository.findDByBookerAndStartBeforeAndEndAfterOrderByStartDescIdDesc(user, now, now, page);
+        bookingRepository.findDByBookerAndStartAfterOrderByStartDescIdDesc(user, now, page);
+        bookingRepository.findDByBookerAndEndBeforeOrderByStartDescIdDesc(user, now, page);
+        bookingRepository.findDByBookerAndStatusOrderByStartDescIdDesc(user, Status.WAITING, page);
+        bookingRepository.findByBookerBeforeCursor(id, now, id, page);
+        bookingRepository.findCurrentByBookerBeforeCursor(id, now, now, id, page);
+        bookingRepository.findFutureByBookerBeforeCursor(id, now, now, id, page);
+        bookingRepository.findPastByBookerBeforeCursor(id, now, now, id, page);
+        bookingRepository.findByBookerAndStatusBeforeCursor(id, Status.WAITING, now, id, page);
+        bookingRepository.findDByItemOwnerOrderByStartDescIdDesc(id, page);
+        bookingRepository.findDByItemOwnerAndStartBeforeAndEndAfterOrderByStartDescIdDesc(id, now, now, page);
+        bookingRepository.findDByItemOwnerAndStartAfterOrderByStartDescIdDesc(id, now, page);
+        bookingRepository.findDByItemOwnerAndEndBeforeOrderByStartDescIdDesc(id, now, page);
+        bookingRepository.findDByItemOwnerAndStatusOrderByStartDescIdDesc(id, Status.WAITING, page);
+        bookingRepository.findByOwnerBeforeCursor(id, now, id, page);
+        bookingRepository.findCurrentByOwnerBeforeCursor(id, now, now, id, page);
+        bookingRepository.findFutureByOwnerBeforeCursor(id, now, now, id, page);
+        bookingRepository.findPastByOwnerBeforeCursor(id, now, now, id, page);
+        bookingRepository.findByOwnerAndStatusBeforeCursor(id, Status.WAITING, now, id, page);
+        bookingRepository.findLastAndNextBooking(item.getId(), Status.APPROVED.name(), now);
+        bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), Status.APPROVED.name(), now);
+        bookingRepository.findNextBookingsByItemIds(List.of(item.getId()), Status.APPROVED.name(), now);
+        bookingRepository.findBookingsByItem(item, Status.APPROVED, id, now);
+        itemRepositoryJpa.findByOwner(id, page);
+        itemRepositoryJpa.existsByOwner(id);
+        itemRepositoryJpa.findByRequestIdIn(List.of(id));
+        commentRepository.findByItem(item);
+        commentRepository.findByItemIdIn(List.of(item.getId()));
+        requestRepository.findByRequestorIdOrderByCreatedAsc(id);
+        requestRepository.findByRequestorIdNotOrderByCreatedAsc(id, page);
+
+        Assertions.assertFalse(STATEMENTS.isEmpty());
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : STATEMENTS) {
+                String plan = explain(connection, sql);
+                Assertions.assertFalse(plan.toUpperCase(Locale.ROOT).contains(BOOKINGS_SCAN),
+                        "Полное сканирование BOOKINGS:\n" + sql + "\n" + plan);
+            }
+        }
+    }
+
+    private String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1));
+            }
+            return plan.toString();
+        }
+    }
+
+    /**
+     * Сохраняет SQL всех запросов на чтение, выполненных Hibernate
+     */
+    public static class SqlRecorder implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
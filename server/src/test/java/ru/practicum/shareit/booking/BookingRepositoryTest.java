@@ -95,6 +95,62 @@ public class BookingRepositoryTest {
         checkBookingAreTheSame(booking, bookingFromDB);
     }
 
+    @Test
+    void findLastAndNextBookingTest() {
+        userRepositoryJpa.save(user);
+        Item itemFromDB = itemRepositoryJpa.save(item);
+        Booking bookingSaved = bookingRepository.save(booking);
+        bookingSaved.setStatus(Status.APPROVED);
+
+        LastNextBookingView before = bookingRepository.findLastAndNextBooking(
+                itemFromDB.getId(), Status.APPROVED.name(), LocalDateTime.now().minusHours(1));
+        LastNextBookingView after = bookingRepository.findLastAndNextBooking(
+                itemFromDB.getId(), Status.APPROVED.name(), LocalDateTime.now().plusHours(1));
+
+        Assertions.assertNull(before.getLastId());
+        Assertions.assertEquals(bookingSaved.getId(), before.getNextId());
+        Assertions.assertEquals(user.getId(), before.getNextBookerId());
+        Assertions.assertEquals(bookingSaved.getId(), after.getLastId());
+        Assertions.assertNull(after.getNextId());
+    }
+
+    @Test
+    void findByItemOwnerTest() {
+        User userFromDB = userRepositoryJpa.save(user);
+        item.setOwner(userFromDB.getId());
+        itemRepositoryJpa.save(item);
+        bookingRepository.save(booking);
+
+        List<Booking> ownerBookings = bookingRepository.findDByItemOwnerOrderByStartDescIdDesc(
+                userFromDB.getId(), PageRequest.of(0, 2));
+
+        Assertions.assertTrue(itemRepositoryJpa.existsByOwner(userFromDB.getId()));
+        Assertions.assertFalse(itemRepositoryJpa.existsByOwner(userFromDB.getId() + 1));
+        Assertions.assertEquals(1, ownerBookings.size());
+        checkBookingAreTheSame(booking, ownerBookings.get(0));
+    }
+
+    @Test
+    void updateStatusByOwnerTest() {
+        User userFromDB = userRepositoryJpa.save(user);
+        item.setOwner(userFromDB.getId());
+        itemRepositoryJpa.save(item);
+        Long id = bookingRepository.save(booking).getId();
+
+        Assertions.assertEquals(0, bookingRepository.updateStatusByOwner(
+                id, userFromDB.getId() + 1, Status.APPROVED, Status.WAITING));
+        Assertions.assertEquals(1, bookingRepository.updateStatusByOwner(
+                id, userFromDB.getId(), Status.APPROVED, Status.WAITING));
+        Assertions.assertEquals(0, bookingRepository.updateStatusByOwner(
+                id, userFromDB.getId(), Status.REJECTED, Status.WAITING));
+
+        BookingDetailsView details = bookingRepository.findDetailsById(id);
+        Assertions.assertEquals(Status.APPROVED, details.getStatus());
+        Assertions.assertEquals(item.getId(), details.getItemId());
+        Assertions.assertEquals(userFromDB.getId(), details.getItemOwner());
+        Assertions.assertEquals(userFromDB.getId(), details.getBookerId());
+    }
+
     private void checkBookingAreTheSame(Booking booking, Booking secondBooking) {
         Assertions.assertEquals(booking.getStart(), secondBooking.getStart());
         Assertions.assertEquals(booking.getEnd(), secondBooking.getEnd());
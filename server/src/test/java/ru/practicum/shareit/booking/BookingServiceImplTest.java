@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hamcrest.FeatureMatcher;
+import org.hamcrest.Matcher;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,7 +10,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.exception.MissingIdException;
@@ -20,10 +25,14 @@ import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
@@ -88,6 +97,32 @@ public class BookingServiceImplTest {
         checkBookingsAreTheSame(bookingDtoFromDB, bookingShortDto, secondTestUser, itemDtoFromDB, Status.WAITING);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void createOverlappingBookingTest() {
+        BookingDto first = bookingService.createBooking(secondTestUser.getId(), secondBookingShortDto);
+        BookingShortDto overlapping = BookingShortDto.builder()
+                .start(secondBookingShortDto.getStart().plusMinutes(30))
+                .end(secondBookingShortDto.getEnd().plusMinutes(30))
+                .itemId(itemDtoFromDB.getId())
+                .build();
+        BookingShortDto adjacent = BookingShortDto.builder()
+                .start(secondBookingShortDto.getEnd())
+                .end(secondBookingShortDto.getEnd().plusHours(1))
+                .itemId(itemDtoFromDB.getId())
+                .build();
+
+        final RequestFailedException exception = Assertions.assertThrows(RequestFailedException.class,
+                () -> bookingService.createBooking(secondTestUser.getId(), overlapping));
+        BookingDto second = bookingService.createBooking(secondTestUser.getId(), adjacent);
+        bookingService.approveBooking(testUser.getId(), first.getId(), false);
+        BookingDto again = bookingService.createBooking(secondTestUser.getId(), secondBookingShortDto);
+
+        assertThat(exception.getMessage(), equalTo("Вещь уже забронирована на выбранные даты"));
+        assertThat(second.getId(), notNullValue());
+        assertThat(again.getId(), notNullValue());
+    }
+
     @Test
     void approveBookingTest() {
         BookingDto bookingDtoFromDB = bookingService.createBooking(secondTestUser.getId(), bookingShortDto);
@@ -97,6 +132,38 @@ public class BookingServiceImplTest {
     }
 
 
+    @Test
+    void approveBookingsTest() {
+        BookingDto firstBooking = bookingService.createBooking(secondTestUser.getId(), bookingShortDto);
+        BookingDto secondBooking = bookingService.createBooking(secondTestUser.getId(), secondBookingShortDto);
+
+        List<BookingDecisionResult> notOwner = bookingService.approveBookings(secondTestUser.getId(), List.of(
+                BookingDecisionDto.builder().bookingId(firstBooking.getId()).approved(true).build()));
+
+        assertThat(notOwner.get(0).getError(), equalTo("ID пользователя не совпадает с ID владельца вещи"));
+
+        List<BookingDecisionResult> results = bookingService.approveBookings(testUser.getId(), List.of(
+                BookingDecisionDto.builder().bookingId(firstBooking.getId()).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(secondBooking.getId()).approved(false).build(),
+                BookingDecisionDto.builder().bookingId(firstBooking.getId()).approved(false).build(),
+                BookingDecisionDto.builder().bookingId(999L).approved(true).build()));
+
+        assertThat(results.size(), equalTo(4));
+        assertThat(results.get(0).getStatus(), equalTo(Status.APPROVED));
+        assertThat(results.get(1).getStatus(), equalTo(Status.REJECTED));
+        assertThat(results.get(2).getError(), equalTo("Решение по бронированию уже указано в пакете"));
+        assertThat(results.get(3).getError(), equalTo("При запросе вещи произошла ошибка"));
+        assertThat(bookingService.getBookingById(testUser.getId(), firstBooking.getId()).getStatus(),
+                equalTo(Status.APPROVED));
+        assertThat(bookingService.getBookingById(testUser.getId(), secondBooking.getId()).getStatus(),
+                equalTo(Status.REJECTED));
+
+        List<BookingDecisionResult> repeated = bookingService.approveBookings(testUser.getId(), List.of(
+                BookingDecisionDto.builder().bookingId(secondBooking.getId()).approved(true).build()));
+
+        assertThat(repeated.get(0).getError(), equalTo("Статус бронирования уже был утвержден."));
+    }
+
     @Test
     void getBookingByIdTest() {
         BookingDto bookingDtoFromDB = bookingService.createBooking(secondTestUser.getId(), bookingShortDto);
@@ -123,8 +190,8 @@ public class BookingServiceImplTest {
         for (BookingShortDto dto : bookingDtos) {
             assertThat(bookings, hasItem(allOf(
                     hasProperty("id", notNullValue()),
-                    hasProperty("start", equalTo(dto.getStart())),
-                    hasProperty("end", equalTo(dto.getEnd())))));
+                    hasProperty("start", equalToDbPrecision(dto.getStart())),
+                    hasProperty("end", equalToDbPrecision(dto.getEnd())))));
         }
 
         List<BookingDto> approvedBookings = bookingService.getAllBookings(secondTestUser.getId(), "WAITING", 0, 3);
@@ -148,8 +215,8 @@ public class BookingServiceImplTest {
         for (BookingShortDto dto : bookingDtos) {
             assertThat(bookings, hasItem(allOf(
                     hasProperty("id", notNullValue()),
-                    hasProperty("start", equalTo(dto.getStart())),
-                    hasProperty("end", equalTo(dto.getEnd())))));
+                    hasProperty("start", equalToDbPrecision(dto.getStart())),
+                    hasProperty("end", equalToDbPrecision(dto.getEnd())))));
         }
 
         List<BookingDto> approvedBookings = bookingService.getAllOwnerBookings(testUser.getId(), "WAITING", 0, 3);
@@ -160,6 +227,66 @@ public class BookingServiceImplTest {
         checkBookingsAreTheSame(waitingBooking, secondBookingShortDto, secondTestUser, itemDtoFromDB, Status.WAITING);
     }
 
+    @Test
+    void getAllBookingsByCursorTest() {
+        BookingDto firstBooking = bookingService.createBooking(secondTestUser.getId(), bookingShortDto);
+        BookingDto secondBooking = bookingService.createBooking(secondTestUser.getId(), secondBookingShortDto);
+        List<BookingDto> firstPage = bookingService.getAllBookings(secondTestUser.getId(), "ALL", 0, 1);
+        String cursor = BookingCursor.encode(firstPage.get(0));
+
+        List<BookingDto> secondPage = bookingService.getAllBookingsByCursor(secondTestUser.getId(), "ALL", cursor, 1);
+        List<BookingDto> ownerPage = bookingService.getAllOwnerBookingsByCursor(testUser.getId(), "ALL", cursor, 1);
+
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(ownerPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(ownerPage.get(0).getId()));
+        assertThat(List.of(firstPage.get(0).getId(), secondPage.get(0).getId()),
+                containsInAnyOrder(firstBooking.getId(), secondBooking.getId()));
+        assertThat(bookingService.getAllBookingsByCursor(secondTestUser.getId(), "ALL",
+                BookingCursor.encode(secondPage.get(0)), 1).size(), equalTo(0));
+    }
+
+    @Test
+    void getAllBookingsEqualStartByCursorTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ItemDto item = itemService.createItem(testUser.getId(), ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Простая дрель")
+                    .available(true)
+                    .build());
+            ids.add(bookingService.createBooking(secondTestUser.getId(), BookingShortDto.builder()
+                    .start(start)
+                    .end(start.plusHours(1))
+                    .itemId(item.getId())
+                    .build()).getId());
+        }
+        ids.sort(Comparator.reverseOrder());
+
+        List<BookingDto> firstPage = bookingService.getAllBookings(secondTestUser.getId(), "ALL", 0, 2);
+        List<BookingDto> secondPage = bookingService.getAllBookingsByCursor(secondTestUser.getId(), "ALL",
+                BookingCursor.encode(firstPage.get(1)), 2);
+        List<BookingDto> ownerFirstPage = bookingService.getAllOwnerBookings(testUser.getId(), "FUTURE", 0, 2);
+        List<BookingDto> ownerSecondPage = bookingService.getAllOwnerBookingsByCursor(testUser.getId(), "FUTURE",
+                BookingCursor.encode(ownerFirstPage.get(1)), 2);
+
+        assertThat(List.of(firstPage.get(0).getId(), firstPage.get(1).getId(), secondPage.get(0).getId()),
+                equalTo(ids));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(List.of(ownerFirstPage.get(0).getId(), ownerFirstPage.get(1).getId(),
+                ownerSecondPage.get(0).getId()), equalTo(ids));
+        assertThat(ownerSecondPage.size(), equalTo(1));
+    }
+
+    @Test
+    void getAllBookingsWrongCursorTest() {
+        final RequestFailedException exception = Assertions.assertThrows(RequestFailedException.class,
+                () -> bookingService.getAllBookingsByCursor(secondTestUser.getId(), "ALL", "wrong", 1));
+
+        assertThat(exception.getMessage(), equalTo("Некорректный курсор: wrong"));
+    }
+
     @Test
     void approveBookingWrongOwnerTest() {
         BookingDto bookingDtoFromDB = bookingService.createBooking(secondTestUser.getId(), bookingShortDto);
@@ -337,10 +464,27 @@ public class BookingServiceImplTest {
             BookingDto booking, BookingShortDto secondBooking, UserDto user, ItemDto item, Status status) {
         assertThat(booking.getId(), notNullValue());
         assertThat(booking.getStatus(), equalTo(status));
-        assertThat(booking.getStart(), equalTo(secondBooking.getStart()));
-        assertThat(booking.getEnd(), equalTo(secondBooking.getEnd()));
+        assertThat(booking.getStart(), equalToDbPrecision(secondBooking.getStart()));
+        assertThat(booking.getEnd(), equalToDbPrecision(secondBooking.getEnd()));
         assertThat(booking.getBooker().getId(), equalTo(user.getId()));
         assertThat(booking.getItem().getId(), equalTo(item.getId()));
         assertThat(booking.getItem().getName(), equalTo(item.getName()));
     }
+
+    /**
+     * Сравнение времени с точностью БД: после утверждения бронирования перечитываются из БД,
+     * где время округлено до микросекунд
+     */
+    private static Matcher<LocalDateTime> equalToDbPrecision(LocalDateTime expected) {
+        return new FeatureMatcher<>(equalTo(toDbPrecision(expected)), "time at DB precision", "time") {
+            @Override
+            protected LocalDateTime featureValueOf(LocalDateTime actual) {
+                return toDbPrecision(actual);
+            }
+        };
+    }
+
+    private static LocalDateTime toDbPrecision(LocalDateTime dateTime) {
+        return dateTime.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+    }
 }
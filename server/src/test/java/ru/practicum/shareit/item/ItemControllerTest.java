@@ -8,9 +8,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.RequestFailedException;
+import ru.practicum.shareit.exception.SearchLimitException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -18,13 +21,19 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.user.Variables.ID_SHARER;
@@ -35,6 +44,8 @@ public class ItemControllerTest {
     private ObjectMapper mapper;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemImporter itemImporter;
     @Autowired
     private MockMvc mvc;
     private ItemDto itemDto;
@@ -70,6 +81,59 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    void createItemsJsonTest() throws Exception {
+        String body = "[{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}]";
+        doAnswer(invocation -> {
+            invocation.getArgument(3, OutputStream.class).write("[{\"index\":0,\"id\":1}]".getBytes());
+            return null;
+        }).when(itemImporter).importItems(anyLong(), any(), anyBoolean(), any());
+
+        mvc.perform(post("/items/batch")
+                        .content(body)
+                        .header(ID_SHARER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.[0].index", is(0)))
+                .andExpect(jsonPath("$.[0].id", is(1L), Long.class));
+        verify(itemImporter).checkOwner(1L);
+        verify(itemImporter).importItems(eq(1L), any(), eq(false), any());
+    }
+
+    @Test
+    void createItemsNdjsonTest() throws Exception {
+        String body = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n";
+        doAnswer(invocation -> {
+            invocation.getArgument(3, OutputStream.class).write("{\"index\":0,\"id\":1}\n".getBytes());
+            return null;
+        }).when(itemImporter).importItems(anyLong(), any(), anyBoolean(), any());
+
+        mvc.perform(post("/items/batch")
+                        .content(body)
+                        .header(ID_SHARER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"index\":0,\"id\":1}\n"));
+        verify(itemImporter).importItems(eq(1L), any(), eq(true), any());
+    }
+
+    @Test
+    void createItemsMalformedTest() throws Exception {
+        doThrow(new RequestFailedException("Некорректный JSON"))
+                .when(itemImporter).importItems(anyLong(), any(), anyBoolean(), any());
+
+        mvc.perform(post("/items/batch")
+                        .content("[}")
+                        .header(ID_SHARER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateItemTest() throws Exception {
         itemDto.setDescription("Перфоратор");
@@ -134,6 +198,31 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    void findAvailableItemsTest() throws Exception {
+        when(itemService.findAvailableItems(anyString(), anyInt(), anyInt(), any(), any()))
+                .thenReturn(items);
+
+        mvc.perform(get("/items/search?text=дрель&start=2030-01-04T10:00:00&end=2030-01-06T10:00:00")
+                        .header(ID_SHARER, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(itemDto.getId()), Long.class));
+        verify(itemService).findAvailableItems("дрель", 0, 10,
+                LocalDateTime.of(2030, 1, 4, 10, 0), LocalDateTime.of(2030, 1, 6, 10, 0));
+    }
+
+    @Test
+    void findAvailableItemsScanLimitTest() throws Exception {
+        when(itemService.findAvailableItems(anyString(), anyInt(), anyInt(), any(), any()))
+                .thenThrow(new SearchLimitException("Страница не набрана"));
+
+        mvc.perform(get("/items/search?text=дрель&from=5000&start=2030-01-04T10:00:00&end=2030-01-06T10:00:00")
+                        .header(ID_SHARER, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void addCommentTest() throws Exception {
         CommentDto comment = CommentDto.builder()
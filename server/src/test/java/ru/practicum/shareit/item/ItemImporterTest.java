@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.MissingIdException;
+import ru.practicum.shareit.exception.RequestFailedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.items.import.chunk-size=2"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class ItemImporterTest {
+    private final ItemImporter itemImporter;
+    private final ItemService itemService;
+    private final UserService userService;
+    private UserDto owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.createUser(UserDto.builder()
+                .email("owner@test.com")
+                .name("owner")
+                .build());
+    }
+
+    @Test
+    void importJsonArrayTest() throws IOException {
+        String body = "[{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true},"
+                + "{\"name\":\"\",\"description\":\"Без названия\",\"available\":true},"
+                + "{\"name\":\"Пила\",\"description\":\"Ручная пила\",\"available\":true,\"requestId\":999},"
+                + "{\"name\":\"Лестница\",\"description\":\"Стремянка\",\"available\":\"может быть\"},"
+                + "{\"name\":\"Молоток\",\"description\":\"Большой молоток\",\"available\":false}]";
+
+        String result = importItems(body, false);
+        List<ItemDto> items = itemService.getAllUserItems(owner.getId(), 0, 10);
+
+        Assertions.assertTrue(result.startsWith("[{\"index\":0,\"id\":"), result);
+        Assertions.assertTrue(result.contains("{\"index\":1,\"error\":\"Не указано название вещи\"}"), result);
+        Assertions.assertTrue(result.contains("{\"index\":2,\"error\":\"Запрос 999 не найден\"}"), result);
+        Assertions.assertTrue(result.contains("{\"index\":3,\"error\":\"Некорректная вещь:"), result);
+        Assertions.assertTrue(result.contains("{\"index\":4,\"id\":"), result);
+        Assertions.assertEquals(2, items.size());
+        Assertions.assertEquals("Дрель", items.get(0).getName());
+        Assertions.assertEquals("Молоток", items.get(1).getName());
+    }
+
+    @Test
+    void importNdjsonTest() throws IOException {
+        String body = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":\"Ручная пила\",\"available\":true}\n"
+                + "{\"name\":\"Молоток\",\"description\":\"Большой молоток\",\"available\":true}\n"
+                + "{\"name\":\"Лестница\"";
+
+        String[] lines = importItems(body, true).split("\n");
+
+        Assertions.assertEquals(4, lines.length);
+        Assertions.assertTrue(lines[2].startsWith("{\"index\":2,\"id\":"), lines[2]);
+        Assertions.assertTrue(lines[3].startsWith("{\"index\":3,\"error\":\"Некорректный JSON"), lines[3]);
+        Assertions.assertEquals(3, itemService.getAllUserItems(owner.getId(), 0, 10).size());
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRowTest() throws IOException {
+        String body = "[{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true},"
+                + "{\"name\":\"" + "П".repeat(300) + "\",\"description\":\"Слишком длинное название\",\"available\":true},"
+                + "{\"name\":\"Молоток\",\"description\":\"Большой молоток\",\"available\":true}]";
+
+        String result = importItems(body, false);
+        List<ItemDto> items = itemService.getAllUserItems(owner.getId(), 0, 10);
+
+        Assertions.assertTrue(result.startsWith("[{\"index\":0,\"id\":"), result);
+        Assertions.assertTrue(result.contains("{\"index\":1,\"error\":\"Не удалось сохранить вещь:"), result);
+        Assertions.assertTrue(result.contains("{\"index\":2,\"id\":"), result);
+        Assertions.assertEquals(2, items.size());
+        Assertions.assertEquals("Дрель", items.get(0).getName());
+        Assertions.assertEquals("Молоток", items.get(1).getName());
+    }
+
+    @Test
+    void chunkResultsAreWrittenBeforeBodyEndsTest() throws IOException {
+        byte[] firstChunk = ("{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":\"Ручная пила\",\"available\":true}\n")
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] rest = "{\"name\":\"Молоток\",\"description\":\"Большой молоток\",\"available\":true}\n"
+                .getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AtomicReference<String> writtenBeforeRest = new AtomicReference<>();
+        InputStream input = new SequenceInputStream(new ByteArrayInputStream(firstChunk), new InputStream() {
+            private final InputStream delegate = new ByteArrayInputStream(rest);
+
+            @Override
+            public int read() throws IOException {
+                writtenBeforeRest.compareAndSet(null, output.toString(StandardCharsets.UTF_8));
+                return delegate.read();
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                writtenBeforeRest.compareAndSet(null, output.toString(StandardCharsets.UTF_8));
+                return delegate.read(bytes, offset, length);
+            }
+        });
+
+        itemImporter.importItems(owner.getId(), input, true, output);
+
+        String[] written = writtenBeforeRest.get().split("\n");
+        Assertions.assertEquals(2, written.length);
+        Assertions.assertTrue(written[1].startsWith("{\"index\":1,\"id\":"), written[1]);
+        Assertions.assertEquals(3, output.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void importNotArrayTest() {
+        Assertions.assertThrows(RequestFailedException.class,
+                () -> importItems("{\"name\":\"Дрель\"}", false));
+    }
+
+    @Test
+    void importMalformedStartTest() {
+        Assertions.assertThrows(RequestFailedException.class, () -> importItems("не JSON", false));
+        Assertions.assertThrows(RequestFailedException.class, () -> importItems("[}", false));
+        Assertions.assertThrows(RequestFailedException.class, () -> importItems("}", true));
+    }
+
+    @Test
+    void importWrongOwnerTest() {
+        Assertions.assertThrows(MissingIdException.class, () -> itemImporter.checkOwner(owner.getId() + 1));
+    }
+
+    private String importItems(String body, boolean ndjson) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        itemImporter.importItems(owner.getId(),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), ndjson, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
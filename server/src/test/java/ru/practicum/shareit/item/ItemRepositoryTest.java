@@ -1,5 +1,11 @@
 package ru.practicum.shareit.item;
 
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,9 +14,14 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
+import java.util.stream.StreamSupport;
 
 @DataJpaTest
 public class ItemRepositoryTest {
@@ -18,6 +29,8 @@ public class ItemRepositoryTest {
     private TestEntityManager em;
     @Autowired
     private ItemRepositoryJpa itemRepositoryJpa;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     private Item item;
 
     @BeforeEach
@@ -55,4 +68,71 @@ public class ItemRepositoryTest {
         Assertions.assertEquals(item.getDescription(), itemFromDB.getDescription());
         Assertions.assertEquals(item.getAvailable(), itemFromDB.getAvailable());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findByIdUsesSecondLevelCacheTest() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Long id = itemRepositoryJpa.save(item).getId();
+        statistics.clear();
+
+        itemRepositoryJpa.findById(id);
+        Item itemFromCache = itemRepositoryJpa.findById(id).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        itemRepositoryJpa.deleteById(id);
+
+        Assertions.assertEquals(0, statements);
+        Assertions.assertEquals(2, hits);
+        Assertions.assertEquals(item.getName(), itemFromCache.getName());
+    }
+
+    @Test
+    void saveAllUsesBatchInsertTest() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Item> items = List.of(
+                Item.builder().name("Дрель").description("Простая дрель").available(true).build(),
+                Item.builder().name("Пила").description("Ручная пила").available(true).build(),
+                Item.builder().name("Лестница").description("Стремянка").available(false).build());
+        statistics.clear();
+
+        itemRepositoryJpa.saveAll(items);
+        em.flush();
+
+        Assertions.assertEquals(3, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Ожидалась одна пакетная вставка и не больше одного запроса к последовательности");
+    }
+
+    @Test
+    void insertWithoutHibernateTakesIdFromSequenceTest() {
+        em.getEntityManager()
+                .createNativeQuery("insert into ITEMS (name, description, available) values ('Пила', 'Пила', true)")
+                .executeUpdate();
+        em.persistAndFlush(item);
+
+        List<?> ids = em.getEntityManager().createNativeQuery("select id from ITEMS").getResultList();
+        Assertions.assertEquals(2, ids.size());
+        Assertions.assertEquals(2, ids.stream().distinct().count());
+        Assertions.assertFalse(ids.contains(null));
+    }
+
+    @Test
+    void cacheRegionsUseConfiguredLimitsTest() {
+        JCacheRegionFactory regionFactory = (JCacheRegionFactory) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(RegionFactory.class);
+
+        Assertions.assertEquals(10000, maximumSize(regionFactory, "items"));
+        Assertions.assertEquals(10000, maximumSize(regionFactory, "users"));
+        Assertions.assertEquals(5000, maximumSize(regionFactory, "requests"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long maximumSize(JCacheRegionFactory regionFactory, String region) {
+        CacheManager cacheManager = regionFactory.getCacheManager();
+        Assertions.assertTrue(StreamSupport.stream(cacheManager.getCacheNames().spliterator(), false)
+                .anyMatch(region::equals), "Нет региона кэша " + region);
+        return cacheManager.getCache(region)
+                .getConfiguration(CaffeineConfiguration.class).getMaximumSize().orElseThrow();
+    }
 }
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        ItemRepositoryJpa itemRepositoryJpa = mock(ItemRepositoryJpa.class);
+        when(itemRepositoryJpa.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(
+                        item(1L, "Дрель", "Простая дрель", true),
+                        item(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                        item(3L, "Дрель+", "Аккумуляторная дрель", false)));
+        index = new ItemSearchIndex(itemRepositoryJpa, true);
+        index.rebuild();
+    }
+
+    @Test
+    void searchAfterRebuildTest() {
+        assertThat(index.isReady(), equalTo(true));
+        assertThat(ids(index.search("дРеЛь", 0, 10)), contains(1L));
+        assertThat(ids(index.search("аккумуляторная", 0, 10)), contains(2L));
+        assertThat(ids(index.search("т", 0, 10)), contains(1L, 2L));
+        assertThat(index.search("пила", 0, 10), empty());
+    }
+
+    @Test
+    void searchAfterUpdateTest() {
+        index.update(item(3L, "Дрель+", "Аккумуляторная дрель", true));
+        assertThat(ids(index.search("дрель", 0, 10)), contains(1L, 3L));
+
+        index.update(item(1L, "Перфоратор", "Простой перфоратор", true));
+        assertThat(ids(index.search("дрель", 0, 10)), contains(3L));
+        assertThat(ids(index.search("перфоратор", 0, 10)), contains(1L));
+
+        index.update(item(3L, "Дрель+", "Аккумуляторная дрель", false));
+        assertThat(index.search("дрель", 0, 10), empty());
+        assertThat(ids(index.search("ль", 0, 10)), empty());
+        assertThat(ids(index.search("р", 0, 10)), contains(1L, 2L));
+    }
+
+    @Test
+    void searchPageTest() {
+        index.update(item(4L, "Дрель ударная", "Ударная дрель", true));
+        index.update(item(5L, "Дрель угловая", "Угловая дрель", true));
+
+        assertThat(ids(index.search("дрель", 0, 2)), contains(1L, 4L));
+        assertThat(ids(index.search("дрель", 2, 2)), contains(5L));
+    }
+
+    @Test
+    void searchAfterRemoveUserTest() {
+        index.update(item(4L, "Дрель ударная", "Ударная дрель", true, 2L));
+        Item requested = item(5L, "Дрель угловая", "Угловая дрель", true, 3L);
+        requested.setRequestId(7L);
+        index.update(requested);
+
+        index.removeUser(1L, List.of(7L));
+
+        assertThat(ids(index.search("дрель", 0, 10)), contains(4L));
+        assertThat(index.search("отвертка", 0, 10), empty());
+        assertThat(ids(index.search("ль", 0, 10)), contains(4L));
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static Item item(Long id, String name, String description, Boolean available) {
+        return item(id, name, description, available, 1L);
+    }
+
+    private static Item item(Long id, String name, String description, Boolean available, Long owner) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+}
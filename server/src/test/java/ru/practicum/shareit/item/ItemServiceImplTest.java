@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -15,12 +16,14 @@ import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.exception.FailedOwnerException;
 import ru.practicum.shareit.exception.MissingIdException;
 import ru.practicum.shareit.exception.RequestFailedException;
+import ru.practicum.shareit.exception.SearchLimitException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -29,10 +32,11 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "shareit.items.available-search.max-batches=1"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -102,6 +106,33 @@ public class ItemServiceImplTest {
     }
 
 
+    @Test
+    void getItemByIdWithBookingsTest() {
+        ItemDto itemDtoFromDB = itemService.createItem(testUser.getId(), itemDto);
+        BookingDto lastBooking = bookingService.createBooking(secondUserFromDB.getId(), BookingShortDto.builder()
+                .start(LocalDateTime.now().minusHours(2))
+                .end(LocalDateTime.now().minusHours(1))
+                .itemId(itemDtoFromDB.getId())
+                .build());
+        bookingService.approveBooking(testUser.getId(), lastBooking.getId(), true);
+        BookingDto nextBooking = bookingService.createBooking(secondUserFromDB.getId(), BookingShortDto.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .itemId(itemDtoFromDB.getId())
+                .build());
+        bookingService.approveBooking(testUser.getId(), nextBooking.getId(), true);
+
+        ItemDto ownerView = itemService.getItemById(testUser.getId(), itemDtoFromDB.getId());
+        ItemDto bookerView = itemService.getItemById(secondUserFromDB.getId(), itemDtoFromDB.getId());
+
+        assertThat(ownerView.getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(ownerView.getLastBooking().getBookerId(), equalTo(secondUserFromDB.getId()));
+        assertThat(ownerView.getNextBooking().getId(), equalTo(nextBooking.getId()));
+        assertThat(ownerView.getNextBooking().getBookerId(), equalTo(secondUserFromDB.getId()));
+        assertThat(bookerView.getLastBooking(), nullValue());
+        assertThat(bookerView.getNextBooking(), nullValue());
+    }
+
     @Test
     void getAllUserItemsTest() {
         List<ItemDto> testList = List.of(itemDto, updateItemDto);
@@ -121,6 +152,43 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void getAllUserItemsWithBookingsAndCommentsTest() {
+        ItemDto firstItem = itemService.createItem(testUser.getId(), itemDto);
+        ItemDto secondItem = itemService.createItem(testUser.getId(), updateItemDto);
+        BookingDto lastBooking = bookingService.createBooking(secondUserFromDB.getId(), BookingShortDto.builder()
+                .start(LocalDateTime.now().minusHours(2))
+                .end(LocalDateTime.now().minusHours(1))
+                .itemId(firstItem.getId())
+                .build());
+        bookingService.approveBooking(testUser.getId(), lastBooking.getId(), true);
+        BookingDto nextBooking = bookingService.createBooking(secondUserFromDB.getId(), BookingShortDto.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .itemId(firstItem.getId())
+                .build());
+        bookingService.approveBooking(testUser.getId(), nextBooking.getId(), true);
+        itemService.addComment(secondUserFromDB.getId(), firstItem.getId(), CommentDto.builder()
+                .text("Добавляем комментарий")
+                .build());
+
+        List<ItemDto> itemsFromDB = itemService.getAllUserItems(testUser.getId(), 0, 3);
+
+        assertThat(itemsFromDB.size(), equalTo(2));
+        ItemDto firstFromDB = itemsFromDB.get(0);
+        assertThat(firstFromDB.getId(), equalTo(firstItem.getId()));
+        assertThat(firstFromDB.getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(firstFromDB.getLastBooking().getBookerId(), equalTo(secondUserFromDB.getId()));
+        assertThat(firstFromDB.getNextBooking().getId(), equalTo(nextBooking.getId()));
+        assertThat(firstFromDB.getComments().size(), equalTo(1));
+        assertThat(firstFromDB.getComments().get(0).getAuthorName(), equalTo(secondUserDto.getName()));
+        ItemDto secondFromDB = itemsFromDB.get(1);
+        assertThat(secondFromDB.getId(), equalTo(secondItem.getId()));
+        assertThat(secondFromDB.getLastBooking(), nullValue());
+        assertThat(secondFromDB.getNextBooking(), nullValue());
+        assertThat(secondFromDB.getComments().size(), equalTo(0));
+    }
+
     @Test
     void findItemsTest() {
         String textSearch = "аккУМУляторная";
@@ -135,6 +203,70 @@ public class ItemServiceImplTest {
         checkItemsAreTheSame(itemsFromSearch.get(0), updateItemDto);
     }
 
+    @Test
+    void findItemsAfterUpdateTest() {
+        ItemDto itemDtoFromDB = itemService.createItem(testUser.getId(), itemDto);
+
+        itemService.updateItem(testUser.getId(), itemDtoFromDB.getId(), ItemDto.builder()
+                .available(false)
+                .build());
+
+        assertThat(itemService.findItems("дрель", 0, 3).size(), equalTo(0));
+
+        itemService.updateItem(testUser.getId(), itemDtoFromDB.getId(), ItemDto.builder()
+                .name("Перфоратор")
+                .available(true)
+                .build());
+
+        assertThat(itemService.findItems("дрель", 0, 3).size(), equalTo(1));
+        assertThat(itemService.findItems("перфоратор", 0, 3).size(), equalTo(1));
+        assertThat(itemService.findItems("дрель+", 0, 3).size(), equalTo(0));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findAvailableItemsTest() {
+        ItemDto bookedItem = itemService.createItem(testUser.getId(), itemDto);
+        ItemDto freeItem = itemService.createItem(testUser.getId(), updateItemDto);
+        LocalDateTime friday = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto booking = bookingService.createBooking(secondUserFromDB.getId(), BookingShortDto.builder()
+                .start(friday)
+                .end(friday.plusDays(2))
+                .itemId(bookedItem.getId())
+                .build());
+
+        List<ItemDto> overlapping = itemService.findAvailableItems("дрель", 0, 10,
+                friday.plusDays(1), friday.plusDays(3));
+        List<ItemDto> adjacent = itemService.findAvailableItems("дрель", 0, 10,
+                friday.plusDays(2), friday.plusDays(3));
+        bookingService.approveBooking(testUser.getId(), booking.getId(), false);
+        List<ItemDto> afterReject = itemService.findAvailableItems("дрель", 0, 10,
+                friday.plusDays(1), friday.plusDays(3));
+
+        assertThat(overlapping.size(), equalTo(1));
+        assertThat(overlapping.get(0).getId(), equalTo(freeItem.getId()));
+        assertThat(adjacent.size(), equalTo(2));
+        assertThat(afterReject.size(), equalTo(2));
+        Assertions.assertThrows(RequestFailedException.class, () -> itemService.findAvailableItems("дрель", 0, 10,
+                friday, friday));
+    }
+
+    @Test
+    void findAvailableItemsScanLimitTest() {
+        for (int i = 0; i <= ItemServiceImpl.AVAILABILITY_BATCH; i++) {
+            itemService.createItem(testUser.getId(), itemDto);
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        List<ItemDto> lastInLimit = itemService.findAvailableItems("дрель", ItemServiceImpl.AVAILABILITY_BATCH - 1, 1,
+                start, start.plusDays(1));
+
+        assertThat(lastInLimit.size(), equalTo(1));
+        Assertions.assertThrows(SearchLimitException.class, () -> itemService.findAvailableItems("дрель",
+                ItemServiceImpl.AVAILABILITY_BATCH, 1, start, start.plusDays(1)));
+        assertThat(itemService.findItems("дрель", ItemServiceImpl.AVAILABILITY_BATCH, 1).size(), equalTo(1));
+    }
+
     @Test
     void addCommentTest() {
         CommentDto comment = CommentDto.builder()
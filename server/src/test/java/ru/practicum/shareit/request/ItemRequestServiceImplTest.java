@@ -10,6 +10,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.MissingIdException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -34,6 +36,7 @@ import static org.hamcrest.Matchers.notNullValue;
 public class ItemRequestServiceImplTest {
     private final RequestService requestService;
     private final UserService userService;
+    private final ItemService itemService;
     private UserDto firstUser;
     private UserDto secondUser;
     private ItemRequestDto itemRequestDto;
@@ -115,6 +118,31 @@ public class ItemRequestServiceImplTest {
         }
     }
 
+    @Test
+    void getAllRequestsWithItemsTest() {
+        ItemRequestDto firstRequest = requestService.createRequest(firstUser.getId(), itemRequests.get(0));
+        ItemRequestDto secondRequest = requestService.createRequest(firstUser.getId(), itemRequests.get(1));
+        ItemDto itemDto = itemService.createItem(secondUser.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .requestId(firstRequest.getId())
+                .build());
+
+        List<ItemRequestDto> requestsByUserId = requestService.getAllRequestsById(firstUser.getId());
+
+        assertThat(requestsByUserId, hasSize(2));
+        for (ItemRequestDto request : requestsByUserId) {
+            if (request.getId().equals(secondRequest.getId())) {
+                assertThat(request.getItems(), hasSize(0));
+            } else {
+                assertThat(request.getItems(), hasSize(1));
+                assertThat(request.getItems().get(0).getId(), equalTo(itemDto.getId()));
+                assertThat(request.getItems().get(0).getRequestId(), equalTo(firstRequest.getId()));
+            }
+        }
+    }
+
     @Test
     void getRequestByIdWrongUserTest() {
         Long badId = 999L;
@@ -5,7 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.io.IOException;
@@ -23,11 +23,12 @@ public class RequestDtoJsonTest {
     @Test
     void testItemDto() throws IOException {
         LocalDateTime dateTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
-        Item item = Item.builder()
+        ItemShortDto item = ItemShortDto.builder()
                 .id(1L)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
+                .requestId(1L)
                 .build();
         ItemRequestDto itemRequestDto = ItemRequestDto.builder()
                 .id(1L)
@@ -46,5 +47,6 @@ public class RequestDtoJsonTest {
         assertThat(result).extractingJsonPathNumberValue("$.items[0].id").isEqualTo(1);
         assertThat(result).extractingJsonPathStringValue("$.items[0].name").isEqualTo("Дрель");
         assertThat(result).extractingJsonPathStringValue("$.items[0].description").isEqualTo("Простая дрель");
+        assertThat(result).extractingJsonPathNumberValue("$.items[0].requestId").isEqualTo(1);
     }
 }
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class UserCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(100, Duration.ofMinutes(10), Duration.ofMinutes(1), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getCachesExistingAndMissingUsersTest() {
+        UserDto userDto = UserDto.builder()
+                .id(1L)
+                .name("testName")
+                .email("test@test.com")
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertSame(userDto, userCache.get(1L, id -> load(Optional.of(userDto))).orElseThrow());
+            Assertions.assertTrue(userCache.get(999L, id -> load(Optional.empty())).isEmpty());
+        }
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(4.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evictTest() {
+        userCache.get(1L, id -> load(Optional.empty()));
+        userCache.evict(1L);
+        userCache.get(1L, id -> load(Optional.empty()));
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private Optional<UserDto> load(Optional<UserDto> user) {
+        loads.incrementAndGet();
+        return user;
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.exception.RequestFailedException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.RequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Удаление пользователя вместе с каскадно удаленными в БД вещами, запросами и бронированиями: после удаления
+ * они не должны отдаваться из кэша второго уровня, индекса поиска и индекса занятости вещей.
+ */
+@SpringBootTest(properties = {"db.name=test", "shareit.search.index.enabled=true"})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+public class UserDeletionTest {
+    private final MockMvc mvc;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final RequestService requestService;
+    private final BookingService bookingService;
+
+    @Test
+    void deleteUserEvictsCascadedEntitiesTest() throws Exception {
+        UserDto owner = createUser("owner");
+        UserDto requestor = createUser("requestor");
+        ItemRequestDto request = requestService.createRequest(requestor.getId(), ItemRequestDto.builder()
+                .description("Нужна дрель")
+                .build());
+        ItemDto requestorItem = itemService.createItem(requestor.getId(), ItemDto.builder()
+                .name("Дрель ударная")
+                .description("Дрель владельца-заказчика")
+                .available(true)
+                .build());
+        ItemDto requestedItem = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("Дрель по запросу")
+                .description("Дрель для заказчика")
+                .available(true)
+                .requestId(request.getId())
+                .build());
+        ItemDto ownerItem = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build());
+        ItemRequestDto ownerRequest = requestService.createRequest(owner.getId(), ItemRequestDto.builder()
+                .description("Нужна пила")
+                .build());
+        itemService.createItem(requestor.getId(), ItemDto.builder()
+                .name("Пила")
+                .description("Пила заказчика")
+                .available(true)
+                .requestId(ownerRequest.getId())
+                .build());
+
+        getItem(owner, requestorItem, status().isOk());
+        getItem(owner, requestedItem, status().isOk());
+        getRequest(owner, request, status().isOk());
+        assertThat(requestService.getAllRequestsById(owner.getId()).get(0).getItems().size(), equalTo(1));
+
+        userService.deleteUser(requestor.getId());
+
+        getItem(owner, requestorItem, status().isNotFound());
+        getItem(owner, requestedItem, status().isNotFound());
+        getItem(owner, ownerItem, status().isOk());
+        getRequest(owner, request, status().isNotFound());
+        assertThat(requestService.getAllRequests(owner.getId(), 0, 10), empty());
+        assertThat(requestService.getAllRequestsById(owner.getId()).get(0).getItems(), empty());
+        assertThat(itemService.findItems("дрель", 0, 10).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()), contains(ownerItem.getId()));
+    }
+
+    @Test
+    void deleteBookerFreesBookedIntervalTest() {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+        UserDto nextBooker = createUser("next");
+        ItemDto item = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build());
+        BookingShortDto booking = BookingShortDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build();
+        bookingService.createBooking(booker.getId(), booking);
+        Assertions.assertThrows(RequestFailedException.class,
+                () -> bookingService.createBooking(nextBooker.getId(), booking));
+
+        userService.deleteUser(booker.getId());
+
+        assertThat(bookingService.createBooking(nextBooker.getId(), booking).getId(), notNullValue());
+    }
+
+    private UserDto createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .email(name + "@test.com")
+                .name(name)
+                .build());
+    }
+
+    private void getItem(UserDto user, ItemDto item, ResultMatcher expected) throws Exception {
+        mvc.perform(get("/items/" + item.getId())
+                        .header(Variables.ID_SHARER, user.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(expected);
+    }
+
+    private void getRequest(UserDto user, ItemRequestDto request, ResultMatcher expected) throws Exception {
+        mvc.perform(get("/requests/" + request.getId())
+                        .header(Variables.ID_SHARER, user.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(expected);
+    }
+}